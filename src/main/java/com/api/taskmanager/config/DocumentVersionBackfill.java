@@ -0,0 +1,45 @@
+package com.api.taskmanager.config;
+
+import com.api.taskmanager.model.Project;
+import com.api.taskmanager.model.Task;
+import com.mongodb.client.result.UpdateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Documents written before Task and Project were versioned have no version field, which save() would
+// take for a new entity; they start at version 0 instead
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DocumentVersionBackfill implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentVersionBackfill.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (Class<?> type : List.of(Task.class, Project.class)) {
+            UpdateResult result = mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L),
+                    type);
+            if (result.getModifiedCount() > 0) {
+                logger.info("Initialized version of {} {} documents",
+                        result.getModifiedCount(), mongoTemplate.getCollectionName(type));
+            }
+        }
+    }
+}
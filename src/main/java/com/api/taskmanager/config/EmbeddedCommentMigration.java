@@ -0,0 +1,107 @@
+package com.api.taskmanager.config;
+
+import com.api.taskmanager.model.Comment;
+import com.api.taskmanager.model.Task;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Component
+public class EmbeddedCommentMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedCommentMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${tasks.comments.migrate-embedded:true}")
+    private boolean enabled;
+
+    @Value("${tasks.comments.recent-limit:5}")
+    private int recentCommentLimit;
+
+    // Moves comment threads written before the comments collection existed; tasks that already carry a
+    // commentCount have been migrated and are skipped, so the runner is safe to leave enabled. Comment ids are
+    // derived from the task id and position, and written with upserts, so a run that stopped between copying the
+    // comments and updating the task copies them onto the same documents again instead of duplicating them.
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        Query query = new Query(Criteria.where("commentCount").exists(false).and("comments.0").exists(true));
+        query.fields().include("comments");
+
+        int migrated = 0;
+        try (Stream<Task> tasks = mongoTemplate.stream(query, Task.class)) {
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                Task task = iterator.next();
+                List<Comment> comments = task.getComments();
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class);
+                for (int i = 0; i < comments.size(); i++) {
+                    Comment comment = comments.get(i);
+                    comment.setId(commentId(task.getId(), i, comment.getCreatedAt()));
+                    comment.setTaskId(task.getId());
+                    bulk.replaceOne(Query.query(Criteria.where("_id").is(comment.getId())), comment,
+                            FindAndReplaceOptions.options().upsert());
+                }
+                bulk.execute();
+
+                List<Comment> recentComments = comments.subList(
+                        Math.max(0, comments.size() - recentCommentLimit), comments.size());
+                mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("_id").is(task.getId())),
+                        new Update().set("comments", recentComments).set("commentCount", comments.size()),
+                        Task.class);
+                migrated++;
+            }
+        }
+
+        if (migrated > 0) {
+            logger.info("Moved embedded comments of {} tasks into the comments collection", migrated);
+        }
+    }
+
+    // An ObjectId, so comment paging keeps working: the creation second, then five bytes of a hash of the task id
+    // and the position as the counter, which keeps a thread in order
+    private String commentId(String taskId, int position, LocalDateTime createdAt) {
+        long seconds = createdAt != null
+                ? createdAt.atZone(ZoneId.systemDefault()).toEpochSecond()
+                : new ObjectId(taskId).getTimestamp();
+        byte[] taskHash;
+        try {
+            taskHash = MessageDigest.getInstance("SHA-256").digest(taskId.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        ByteBuffer id = ByteBuffer.allocate(12);
+        id.putInt((int) seconds);
+        id.put(taskHash, 0, 5);
+        id.put((byte) (position >>> 16)).put((byte) (position >>> 8)).put((byte) position);
+        return new ObjectId(id.array()).toHexString();
+    }
+}
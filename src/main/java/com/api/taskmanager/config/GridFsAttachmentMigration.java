@@ -0,0 +1,146 @@
+package com.api.taskmanager.config;
+
+import com.api.taskmanager.model.Attachment;
+import com.api.taskmanager.model.Task;
+import com.api.taskmanager.service.AttachmentStorageService;
+import com.api.taskmanager.service.GridFsAttachmentStore;
+import com.api.taskmanager.service.StoredBlob;
+import com.mongodb.client.result.UpdateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// Copies attachments kept on the local disk into GridFS and points Attachment.fileUrl at the copy.
+// Each attachment is rewritten only if it still references the old location, so the runner can be
+// interrupted and rerun, and uploads served meanwhile keep working from either store.
+@Component
+public class GridFsAttachmentMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(GridFsAttachmentMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AttachmentStorageService attachmentStorageService;
+
+    @Autowired
+    private GridFsAttachmentStore gridFsAttachmentStore;
+
+    @Value("${attachments.migrate-to-gridfs:false}")
+    private boolean enabled;
+
+    @Value("${attachments.migration.batch-size:100}")
+    private int batchSize;
+
+    @Value("${attachments.migration.parallelism:4}")
+    private int parallelism;
+
+    @Value("${attachments.max-size-bytes:5368709120}")
+    private long maxSizeBytes;
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+
+        Query query = new Query(Criteria.where("attachments")
+                .elemMatch(Criteria.where("fileUrl").not().regex("^gridfs:")));
+        query.fields().include("attachments");
+
+        AtomicInteger migrated = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+
+        // The cursor only advances after the previous batch finished, so at most one batch is in flight
+        try (Stream<Task> tasks = mongoTemplate.stream(query, Task.class)) {
+            Iterator<Task> iterator = tasks.iterator();
+            List<Future<?>> batch = new ArrayList<>(batchSize);
+            while (iterator.hasNext()) {
+                Task task = iterator.next();
+                for (Attachment attachment : task.getAttachments()) {
+                    if (!gridFsAttachmentStore.owns(attachment.getFileUrl())) {
+                        batch.add(executor.submit(() -> migrate(task.getId(), attachment, migrated, failed)));
+                    }
+                }
+                if (batch.size() >= batchSize || !iterator.hasNext()) {
+                    awaitAll(batch);
+                    batch.clear();
+                    logger.info("Moved {} attachments into GridFS so far, {} failed", migrated.get(), failed.get());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        logger.info("GridFS attachment migration finished: {} moved, {} failed", migrated.get(), failed.get());
+    }
+
+    private void migrate(String taskId, Attachment attachment, AtomicInteger migrated, AtomicInteger failed) {
+        String oldLocation = attachment.getFileUrl();
+        StoredBlob blob;
+        try (InputStream content = attachmentStorageService.open(attachment, 0)) {
+            blob = gridFsAttachmentStore.put(content, attachment.getFileName(), maxSizeBytes);
+        } catch (IOException e) {
+            logger.warn("Could not copy attachment {} of task {}: {}", attachment.getId(), taskId, e.getMessage());
+            failed.incrementAndGet();
+            return;
+        }
+
+        if (attachment.getChecksum() != null && !attachment.getChecksum().equals(blob.getChecksum())) {
+            logger.warn("Checksum mismatch for attachment {} of task {}, keeping {}",
+                    attachment.getId(), taskId, oldLocation);
+            gridFsAttachmentStore.release(blob.getLocation());
+            failed.incrementAndGet();
+            return;
+        }
+
+        Query query = Query.query(Criteria.where("_id").is(taskId)
+                .and("attachments").elemMatch(Criteria.where("id").is(attachment.getId()).and("fileUrl").is(oldLocation)));
+        Update update = new Update()
+                .set("attachments.$.fileUrl", blob.getLocation())
+                .set("attachments.$.checksum", blob.getChecksum())
+                .set("attachments.$.fileSize", blob.getSize());
+        UpdateResult result = mongoTemplate.updateFirst(query, update, Task.class);
+
+        if (result.getModifiedCount() == 0) {
+            // Removed or already moved while the copy ran
+            gridFsAttachmentStore.release(blob.getLocation());
+            return;
+        }
+        attachmentStorageService.release(attachment);
+        migrated.incrementAndGet();
+    }
+
+
+    private void awaitAll(List<Future<?>> batch) throws InterruptedException {
+        for (Future<?> future : batch) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                logger.warn("Attachment migration step failed: {}", e.getCause().getMessage());
+            }
+        }
+    }
+}
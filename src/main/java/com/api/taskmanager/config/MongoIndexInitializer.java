@@ -0,0 +1,175 @@
+package com.api.taskmanager.config;
+
+import com.api.taskmanager.model.AttachmentBlob;
+import com.api.taskmanager.model.Comment;
+import com.api.taskmanager.model.Project;
+import com.api.taskmanager.model.ProjectDeletion;
+import com.api.taskmanager.model.Task;
+import com.api.taskmanager.model.UploadSession;
+import com.api.taskmanager.model.User;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MongoIndexInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    private static final List<Class<?>> INDEXED_TYPES = List.of(
+            Task.class, Project.class, Comment.class, User.class, AttachmentBlob.class, UploadSession.class,
+            ProjectDeletion.class);
+
+    private static final String SAMPLE_ID = "000000000000000000000000";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${mongo.indexes.create-on-startup:true}")
+    private boolean createOnStartup;
+
+    // off, warn or fail
+    @Value("${mongo.indexes.diagnostics:warn}")
+    private String diagnostics;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (createOnStartup) {
+            createIndexes();
+        }
+        if (!"off".equalsIgnoreCase(diagnostics)) {
+            verifyQueryPlans();
+        }
+    }
+
+    private void createIndexes() {
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+        for (Class<?> type : INDEXED_TYPES) {
+            IndexOperations indexOperations = mongoTemplate.indexOps(type);
+            List<String> expected = new ArrayList<>();
+
+            for (IndexDefinition definition : resolver.resolveIndexFor(type)) {
+                try {
+                    expected.add(indexOperations.createIndex(definition));
+                } catch (RuntimeException e) {
+                    // Usually an existing index with the same keys but different options
+                    report("Could not create index " + definition.getIndexKeys() + " on "
+                            + mongoTemplate.getCollectionName(type) + ": " + e.getMessage());
+                }
+            }
+
+            Set<String> existing = indexOperations.getIndexInfo().stream()
+                    .map(IndexInfo::getName)
+                    .collect(Collectors.toSet());
+            for (String name : expected) {
+                if (!existing.contains(name)) {
+                    report("Index " + name + " is missing on " + mongoTemplate.getCollectionName(type));
+                }
+            }
+        }
+    }
+
+    // One entry per query shape issued by the repositories, including the _id sort used for keyset pages
+    private List<QueryShape> queryShapes() {
+        Document byId = new Document("_id", 1);
+        return List.of(
+                new QueryShape("tasks", "findByCreatedBy", new Document("createdBy", SAMPLE_ID), byId),
+                new QueryShape("tasks", "findByAssignedTo", new Document("assignedTo", SAMPLE_ID), byId),
+                new QueryShape("tasks", "findByProjectId", new Document("projectId", SAMPLE_ID), byId),
+                new QueryShape("tasks", "findByStatus",
+                        new Document("status", Task.TaskStatus.OPEN.name()), byId),
+                new QueryShape("tasks", "findByAssignedToAndStatus",
+                        new Document("assignedTo", SAMPLE_ID).append("status", Task.TaskStatus.OPEN.name()), byId),
+                new QueryShape("tasks", "visibleTo",
+                        new Document("$or", List.of(
+                                new Document("projectId", new Document("$in", List.of(SAMPLE_ID))),
+                                new Document("assignedTo", SAMPLE_ID))),
+                        byId),
+                new QueryShape("tasks", "countOverdue",
+                        new Document("projectId", SAMPLE_ID)
+                                .append("dueDate", new Document("$lt", new Date()))
+                                .append("status", new Document("$ne", Task.TaskStatus.COMPLETED.name())),
+                        new Document()),
+                new QueryShape("tasks", "deadlineLoad",
+                        new Document("dueDate", new Document("$ne", null))
+                                .append("status", new Document("$ne", Task.TaskStatus.COMPLETED.name())),
+                        new Document()),
+                new QueryShape("tasks", "search",
+                        new Document("$text", new Document("$search", "sample")), new Document()),
+                new QueryShape("projects", "findByCreatedBy", new Document("createdBy", SAMPLE_ID), byId),
+                new QueryShape("projects", "findByMembersContaining", new Document("members", SAMPLE_ID), byId),
+                new QueryShape("projects", "findByActiveTrue", new Document("active", true), new Document()),
+                new QueryShape("comments", "findPage", new Document("taskId", SAMPLE_ID), byId),
+                new QueryShape("users", "findByUsername", new Document("username", "sample"), new Document()),
+                new QueryShape("users", "findByEmail", new Document("email", "sample@example.com"), new Document()),
+                new QueryShape("users", "userVersionRefresh",
+                        new Document("updatedAt", new Document("$gte", new Date())), new Document())
+        );
+    }
+
+    private void verifyQueryPlans() {
+        for (QueryShape shape : queryShapes()) {
+            Document explain;
+            try {
+                explain = mongoTemplate.getCollection(shape.collection())
+                        .find(shape.filter())
+                        .sort(shape.sort())
+                        .limit(1)
+                        .explain();
+            } catch (RuntimeException e) {
+                report("Could not explain " + shape.collection() + "." + shape.name() + ": " + e.getMessage());
+                continue;
+            }
+            Object queryPlanner = explain.get("queryPlanner");
+            if (queryPlanner instanceof Document planner && containsCollectionScan(planner.get("winningPlan"))) {
+                report("Query " + shape.collection() + "." + shape.name() + " " + shape.filter().toJson()
+                        + " falls back to COLLSCAN");
+            }
+        }
+    }
+
+    private boolean containsCollectionScan(Object plan) {
+        if (plan instanceof Document document) {
+            if ("COLLSCAN".equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(this::containsCollectionScan);
+        }
+        if (plan instanceof List<?> list) {
+            return list.stream().anyMatch(this::containsCollectionScan);
+        }
+        return false;
+    }
+
+    private void report(String problem) {
+        if ("fail".equalsIgnoreCase(diagnostics)) {
+            throw new IllegalStateException(problem);
+        }
+        logger.warn(problem);
+    }
+
+    private record QueryShape(String collection, String name, Document filter, Document sort) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.api.taskmanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PaginationProperties {
+
+    @Value("${pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${pagination.allow-unpaged:true}")
+    private boolean allowUnpaged;
+
+    public int resolvePageSize(Integer requestedSize) {
+        if (requestedSize == null || requestedSize <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requestedSize, maxPageSize);
+    }
+
+    public void checkUnpagedAllowed() {
+        if (!allowUnpaged) {
+            throw new RuntimeException("Unpaged listing is disabled, use cursor pagination");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.api.taskmanager.controller;
+
+import com.api.taskmanager.dto.MessageResponse;
+import com.api.taskmanager.dto.UploadSessionRequest;
+import com.api.taskmanager.security.UserDetailsImpl;
+import com.api.taskmanager.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/tasks/{taskId}/uploads")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AttachmentUploadController {
+
+    @Autowired
+    private UploadSessionService uploadSessionService;
+
+    @PostMapping
+    public ResponseEntity<?> initiateUpload(@PathVariable String taskId,
+                                            @Valid @RequestBody UploadSessionRequest request,
+                                            Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        try {
+            return ResponseEntity.ok(uploadSessionService.initiate(taskId, request, userDetails.getId()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error starting upload: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<?> getUploadStatus(@PathVariable String taskId,
+                                             @PathVariable String uploadId,
+                                             Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return ResponseEntity.ok(uploadSessionService.getStatus(taskId, uploadId, userDetails.getId()));
+    }
+
+    @PutMapping(value = "/{uploadId}/parts/{partNumber}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> uploadPart(@PathVariable String taskId,
+                                        @PathVariable String uploadId,
+                                        @PathVariable int partNumber,
+                                        HttpServletRequest request,
+                                        Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        try (InputStream content = request.getInputStream()) {
+            return ResponseEntity.ok(uploadSessionService.uploadPart(
+                    taskId, uploadId, partNumber, content, userDetails.getId()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error uploading part: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<?> completeUpload(@PathVariable String taskId,
+                                            @PathVariable String uploadId,
+                                            Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        try {
+            return ResponseEntity.ok(uploadSessionService.complete(taskId, uploadId, userDetails.getId()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error completing upload: " + e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<?> abortUpload(@PathVariable String taskId,
+                                         @PathVariable String uploadId,
+                                         Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        uploadSessionService.abort(taskId, uploadId, userDetails.getId());
+        return ResponseEntity.ok(new MessageResponse("Upload aborted"));
+    }
+}
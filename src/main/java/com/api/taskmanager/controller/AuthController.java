@@ -3,6 +3,7 @@ package com.api.taskmanager.controller;
 import com.api.taskmanager.dto.*;
 import com.api.taskmanager.model.User;
 import com.api.taskmanager.security.JwtUtils;
+import com.api.taskmanager.security.PasswordHashingExecutor;
 import com.api.taskmanager.security.UserDetailsImpl;
 import com.api.taskmanager.service.UserService;
 import jakarta.validation.Valid;
@@ -31,6 +32,9 @@ public class AuthController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
         if (userService.existsByUsername(registerRequest.getUsername())) {
@@ -59,8 +63,9 @@ public class AuthController {
 
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+        // Password verification (and a rehash when the BCrypt cost was raised) runs on the bounded hashing pool
+        Authentication authentication = passwordHashingExecutor.execute(() -> authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtUtils.generateJwtToken(authentication);
@@ -0,0 +1,64 @@
+package com.api.taskmanager.controller;
+
+import com.api.taskmanager.exception.PreconditionFailedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.function.Supplier;
+
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    // Answers 304 without building the body when the client's If-None-Match still matches
+    static ResponseEntity<?> ok(WebRequest request, String etag, Supplier<?> body) {
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(body.get());
+    }
+
+    // For lists: the ETag is a hash of the serialized page, so no query runs beyond reading the page itself.
+    // A match still reads the page but skips sending it.
+    static ResponseEntity<?> hashed(WebRequest request, ObjectMapper objectMapper, Object body) {
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
+    }
+
+    static String versionETag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Returns the version an If-Match header requires, or null when any version is acceptable
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        // Weak validators never match for If-Match
+        if (!value.startsWith("\"") || !value.endsWith("\"") || value.length() < 3) {
+            throw new PreconditionFailedException("If-Match must be a strong ETag returned by this API");
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match must be a strong ETag returned by this API");
+        }
+    }
+}
@@ -1,17 +1,22 @@
 package com.api.taskmanager.controller;
 
+import com.api.taskmanager.config.PaginationProperties;
 import com.api.taskmanager.dto.MessageResponse;
 import com.api.taskmanager.dto.ProjectRequest;
 import com.api.taskmanager.model.Project;
 import com.api.taskmanager.security.UserDetailsImpl;
 import com.api.taskmanager.service.ProjectService;
+import com.api.taskmanager.service.ProjectStatsService;
+import com.api.taskmanager.service.TaskEventStreamer;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
 
 @RestController
 @RequestMapping("/api/projects")
@@ -21,6 +26,18 @@ public class ProjectController {
     @Autowired
     private ProjectService projectService;
 
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private ProjectStatsService projectStatsService;
+
+    @Autowired
+    private TaskEventStreamer taskEventStreamer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     public ResponseEntity<?> createProject(@Valid @RequestBody ProjectRequest projectRequest,
                                            Authentication authentication) {
@@ -39,40 +56,63 @@ public class ProjectController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProjectById(@PathVariable String id) {
+    public ResponseEntity<?> getProjectById(@PathVariable String id, WebRequest request) {
         Project project = projectService.getProjectById(id);
-        return ResponseEntity.ok(project);
+        return ConditionalResponses.ok(request, ConditionalResponses.versionETag(project.getVersion()), () -> project);
+    }
+
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<?> getProjectStats(@PathVariable String id) {
+        return ResponseEntity.ok(projectStatsService.getStats(id));
     }
 
     @GetMapping
-    public ResponseEntity<?> getAllProjects() {
-        List<Project> projects = projectService.getAllProjects();
-        return ResponseEntity.ok(projects);
+    public ResponseEntity<?> getAllProjects(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer size,
+                                            @RequestParam(defaultValue = "false") boolean unpaged,
+                                            WebRequest request) {
+        if (unpaged) {
+            paginationProperties.checkUnpagedAllowed();
+            return ConditionalResponses.hashed(request, objectMapper, projectService.getAllProjects());
+        }
+        return ConditionalResponses.hashed(request, objectMapper, projectService.getAllProjects(cursor, size));
     }
 
     @GetMapping("/my-projects")
-    public ResponseEntity<?> getMyProjects(Authentication authentication) {
+    public ResponseEntity<?> getMyProjects(Authentication authentication, WebRequest request) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        List<Project> projects = projectService.getProjectsByMember(userDetails.getId());
-        return ResponseEntity.ok(projects);
+        return ConditionalResponses.hashed(request, objectMapper,
+                projectService.getProjectsByMember(userDetails.getId()));
     }
 
     @GetMapping("/created-by-me")
-    public ResponseEntity<?> getProjectsCreatedByMe(Authentication authentication) {
+    public ResponseEntity<?> getProjectsCreatedByMe(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestParam(defaultValue = "false") boolean unpaged,
+                                                    Authentication authentication,
+                                                    WebRequest request) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        List<Project> projects = projectService.getProjectsByCreator(userDetails.getId());
-        return ResponseEntity.ok(projects);
+        if (unpaged) {
+            paginationProperties.checkUnpagedAllowed();
+            return ConditionalResponses.hashed(request, objectMapper,
+                    projectService.getProjectsByCreator(userDetails.getId()));
+        }
+        return ConditionalResponses.hashed(request, objectMapper,
+                projectService.getProjectsByCreator(userDetails.getId(), cursor, size));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<?> updateProject(@PathVariable String id,
-                                           @Valid @RequestBody ProjectRequest projectRequest) {
+                                           @Valid @RequestBody ProjectRequest projectRequest,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Project project = new Project();
         project.setName(projectRequest.getName());
         project.setDescription(projectRequest.getDescription());
 
-        Project updatedProject = projectService.updateProject(id, project);
-        return ResponseEntity.ok(updatedProject);
+        Project updatedProject = projectService.updateProject(id, project, ConditionalResponses.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(ConditionalResponses.versionETag(updatedProject.getVersion()))
+                .body(updatedProject);
     }
 
     @DeleteMapping("/{id}")
@@ -81,6 +121,20 @@ public class ProjectController {
         return ResponseEntity.ok(new MessageResponse("Project deleted successfully!"));
     }
 
+    // Server-Sent Events for changes to the project's tasks. Reconnecting clients send Last-Event-ID to be
+    // replayed what they missed, or get a RESET event when that is no longer possible.
+    @GetMapping("/{id}/events")
+    public SseEmitter streamEvents(@PathVariable String id,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        projectService.getProjectById(id);
+        return taskEventStreamer.open(id, lastEventId);
+    }
+
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<?> getDeletion(@PathVariable String id) {
+        return ResponseEntity.ok(projectService.getDeletion(id));
+    }
+
     @PostMapping("/{id}/members/{userId}")
     public ResponseEntity<?> addMember(@PathVariable String id, @PathVariable String userId) {
         Project project = projectService.addMember(id, userId);
@@ -0,0 +1,67 @@
+package com.api.taskmanager.controller;
+
+import com.api.taskmanager.config.PaginationProperties;
+import com.api.taskmanager.dto.CursorPage;
+import com.api.taskmanager.model.Project;
+import com.api.taskmanager.repository.ReactiveProjectRepository;
+import com.api.taskmanager.security.UserDetailsImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+// Paged like ReactiveTaskController
+@RestController
+@RequestMapping(value = "/api/reactive/projects",
+        produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ReactiveProjectController {
+
+    @Autowired
+    private ReactiveProjectRepository reactiveProjectRepository;
+
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Value("${reactive.prefetch:256}")
+    private int prefetch;
+
+    @GetMapping
+    public Flux<Project> getAllProjects(@RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer size,
+                                        @RequestParam(defaultValue = "false") boolean unpaged) {
+        return stream(new Criteria(), cursor, size, unpaged);
+    }
+
+    @GetMapping("/my-projects")
+    public Flux<Project> getMyProjects(@RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer size,
+                                       @RequestParam(defaultValue = "false") boolean unpaged,
+                                       Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return stream(Criteria.where("members").is(userDetails.getId()), cursor, size, unpaged);
+    }
+
+    @GetMapping("/created-by-me")
+    public Flux<Project> getProjectsCreatedByMe(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size,
+                                                @RequestParam(defaultValue = "false") boolean unpaged,
+                                                Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return stream(Criteria.where("createdBy").is(userDetails.getId()), cursor, size, unpaged);
+    }
+
+    private Flux<Project> stream(Criteria criteria, String cursor, Integer size, boolean unpaged) {
+        String after = CursorPage.decodeCursor(cursor);
+        Integer limit = null;
+        if (unpaged) {
+            paginationProperties.checkUnpagedAllowed();
+        } else {
+            limit = paginationProperties.resolvePageSize(size);
+        }
+        return reactiveProjectRepository.findPage(criteria, after, limit).limitRate(prefetch);
+    }
+}
@@ -0,0 +1,106 @@
+package com.api.taskmanager.controller;
+
+import com.api.taskmanager.config.PaginationProperties;
+import com.api.taskmanager.dto.CursorPage;
+import com.api.taskmanager.dto.TaskView;
+import com.api.taskmanager.model.Task;
+import com.api.taskmanager.repository.ReactiveTaskRepository;
+import com.api.taskmanager.security.UserDetailsImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+// Non-blocking read side for dashboards. Results are streamed as NDJSON or Server-Sent Events; demand from the
+// response writer is propagated to the reactive driver in batches of reactive.prefetch documents.
+// Streams follow the paging rules of the MVC lists: at most size tasks (pagination.default-page-size when absent)
+// in _id order after the opaque cursor the MVC lists return as nextCursor, projected with fields=, and unpaged=true
+// only if pagination.allow-unpaged.
+@RestController
+@RequestMapping(value = "/api/reactive/tasks",
+        produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ReactiveTaskController {
+
+    @Autowired
+    private ReactiveTaskRepository reactiveTaskRepository;
+
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Value("${reactive.prefetch:256}")
+    private int prefetch;
+
+    @GetMapping
+    public Flux<TaskView> getAllTasks(@RequestParam(required = false) String cursor,
+                                      @RequestParam(required = false) Integer size,
+                                      @RequestParam(required = false) String fields,
+                                      @RequestParam(defaultValue = "false") boolean unpaged) {
+        return stream(new Criteria(), cursor, size, fields, unpaged);
+    }
+
+    @GetMapping("/my-tasks")
+    public Flux<TaskView> getMyTasks(@RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer size,
+                                     @RequestParam(required = false) String fields,
+                                     @RequestParam(defaultValue = "false") boolean unpaged,
+                                     Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return stream(Criteria.where("assignedTo").is(userDetails.getId()), cursor, size, fields, unpaged);
+    }
+
+    @GetMapping("/created-by-me")
+    public Flux<TaskView> getTasksCreatedByMe(@RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer size,
+                                              @RequestParam(required = false) String fields,
+                                              @RequestParam(defaultValue = "false") boolean unpaged,
+                                              Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return stream(Criteria.where("createdBy").is(userDetails.getId()), cursor, size, fields, unpaged);
+    }
+
+    @GetMapping("/project/{projectId}")
+    public Flux<TaskView> getTasksByProject(@PathVariable String projectId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer size,
+                                            @RequestParam(required = false) String fields,
+                                            @RequestParam(defaultValue = "false") boolean unpaged) {
+        return stream(Criteria.where("projectId").is(projectId), cursor, size, fields, unpaged);
+    }
+
+    @GetMapping("/status/{status}")
+    public Flux<TaskView> getTasksByStatus(@PathVariable Task.TaskStatus status,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer size,
+                                           @RequestParam(required = false) String fields,
+                                           @RequestParam(defaultValue = "false") boolean unpaged) {
+        return stream(Criteria.where("status").is(status), cursor, size, fields, unpaged);
+    }
+
+    @GetMapping("/my-tasks/status/{status}")
+    public Flux<TaskView> getMyTasksByStatus(@PathVariable Task.TaskStatus status,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer size,
+                                             @RequestParam(required = false) String fields,
+                                             @RequestParam(defaultValue = "false") boolean unpaged,
+                                             Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        Criteria criteria = Criteria.where("assignedTo").is(userDetails.getId()).and("status").is(status);
+        return stream(criteria, cursor, size, fields, unpaged);
+    }
+
+    private Flux<TaskView> stream(Criteria criteria, String cursor, Integer size, String fields, boolean unpaged) {
+        String after = CursorPage.decodeCursor(cursor);
+        Integer limit = null;
+        if (unpaged) {
+            paginationProperties.checkUnpagedAllowed();
+        } else {
+            limit = paginationProperties.resolvePageSize(size);
+        }
+        return reactiveTaskRepository.findPage(criteria, TaskView.resolveFields(fields), after, limit)
+                .limitRate(prefetch);
+    }
+}
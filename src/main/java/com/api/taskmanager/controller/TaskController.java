@@ -1,26 +1,36 @@
 package com.api.taskmanager.controller;
 
+import com.api.taskmanager.config.PaginationProperties;
+import com.api.taskmanager.dto.BulkTaskRequest;
 import com.api.taskmanager.dto.CommentRequest;
 import com.api.taskmanager.dto.MessageResponse;
 import com.api.taskmanager.dto.TaskRequest;
+import com.api.taskmanager.dto.TaskScope;
 import com.api.taskmanager.model.Attachment;
 import com.api.taskmanager.model.Task;
 import com.api.taskmanager.security.UserDetailsImpl;
+import com.api.taskmanager.service.AttachmentDownloadService;
+import com.api.taskmanager.service.AttachmentStorageService;
 import com.api.taskmanager.service.TaskService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.List;
-import java.util.UUID;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -30,7 +40,17 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
 
-    private static final String UPLOAD_DIR = "uploads/";
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private AttachmentStorageService attachmentStorageService;
+
+    @Autowired
+    private AttachmentDownloadService attachmentDownloadService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<?> createTask(@Valid @RequestBody TaskRequest taskRequest,
@@ -50,61 +70,159 @@ public class TaskController {
         return ResponseEntity.ok(createdTask);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<?> bulkTasks(@Valid @RequestBody BulkTaskRequest bulkTaskRequest,
+                                       Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        return ResponseEntity.ok(taskService.bulk(bulkTaskRequest, userDetails.getId()));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<?> getTaskById(@PathVariable String id) {
+    public ResponseEntity<?> getTaskById(@PathVariable String id, WebRequest request) {
         Task task = taskService.getTaskById(id);
-        return ResponseEntity.ok(task);
+        return ConditionalResponses.ok(request, ConditionalResponses.versionETag(task.getVersion()), () -> task);
     }
 
     @GetMapping
-    public ResponseEntity<?> getAllTasks() {
-        List<Task> tasks = taskService.getAllTasks();
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> getAllTasks(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer size,
+                                         @RequestParam(required = false) String fields,
+                                         @RequestParam(defaultValue = "false") boolean unpaged,
+                                         @RequestParam(defaultValue = "ALL") TaskScope scope,
+                                         Authentication authentication,
+                                         WebRequest request) {
+        if (scope == TaskScope.MEMBER) {
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            if (unpaged) {
+                paginationProperties.checkUnpagedAllowed();
+                return ConditionalResponses.hashed(request, objectMapper,
+                        taskService.getTasksVisibleTo(userDetails.getId()));
+            }
+            return ConditionalResponses.hashed(request, objectMapper,
+                    taskService.getTasksVisibleTo(userDetails.getId(), cursor, size, fields));
+        }
+
+        if (unpaged) {
+            paginationProperties.checkUnpagedAllowed();
+            return ConditionalResponses.hashed(request, objectMapper, taskService.getAllTasks());
+        }
+        return ConditionalResponses.hashed(request, objectMapper, taskService.getAllTasks(cursor, size, fields));
+    }
+
+    @GetMapping("/overdue")
+    public ResponseEntity<?> getOverdueTasks(@RequestParam(required = false) String projectId,
+                                             @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(taskService.getOverdueTasks(projectId, size));
     }
 
     @GetMapping("/my-tasks")
-    public ResponseEntity<?> getMyTasks(Authentication authentication) {
+    public ResponseEntity<?> getMyTasks(@RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer size,
+                                        @RequestParam(required = false) String fields,
+                                        @RequestParam(defaultValue = "false") boolean unpaged,
+                                        Authentication authentication,
+                                        WebRequest request) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        List<Task> tasks = taskService.getTasksByAssignedUser(userDetails.getId());
-        return ResponseEntity.ok(tasks);
+        if (unpaged) {
+            paginationProperties.checkUnpagedAllowed();
+            return ConditionalResponses.hashed(request, objectMapper,
+                    taskService.getTasksByAssignedUser(userDetails.getId()));
+        }
+        return ConditionalResponses.hashed(request, objectMapper,
+                taskService.getTasksByAssignedUser(userDetails.getId(), cursor, size, fields));
     }
 
     @GetMapping("/created-by-me")
-    public ResponseEntity<?> getTasksCreatedByMe(Authentication authentication) {
+    public ResponseEntity<?> getTasksCreatedByMe(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size,
+                                                 @RequestParam(required = false) String fields,
+                                                 @RequestParam(defaultValue = "false") boolean unpaged,
+                                                 Authentication authentication,
+                                                 WebRequest request) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        List<Task> tasks = taskService.getTasksByCreator(userDetails.getId());
-        return ResponseEntity.ok(tasks);
+        if (unpaged) {
+            paginationProperties.checkUnpagedAllowed();
+            return ConditionalResponses.hashed(request, objectMapper,
+                    taskService.getTasksByCreator(userDetails.getId()));
+        }
+        return ConditionalResponses.hashed(request, objectMapper,
+                taskService.getTasksByCreator(userDetails.getId(), cursor, size, fields));
     }
 
     @GetMapping("/project/{projectId}")
-    public ResponseEntity<?> getTasksByProject(@PathVariable String projectId) {
-        List<Task> tasks = taskService.getTasksByProject(projectId);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> getTasksByProject(@PathVariable String projectId,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(required = false) String fields,
+                                               @RequestParam(defaultValue = "false") boolean unpaged,
+                                               WebRequest request) {
+        if (unpaged) {
+            paginationProperties.checkUnpagedAllowed();
+            return ConditionalResponses.hashed(request, objectMapper, taskService.getTasksByProject(projectId));
+        }
+        return ConditionalResponses.hashed(request, objectMapper,
+                taskService.getTasksByProject(projectId, cursor, size, fields));
+    }
+
+    @GetMapping(value = "/project/{projectId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasksByProject(@PathVariable String projectId) {
+        return ndjsonExport(() -> taskService.streamTasksByProject(projectId));
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<?> getTasksByStatus(@PathVariable Task.TaskStatus status) {
-        List<Task> tasks = taskService.getTasksByStatus(status);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> getTasksByStatus(@PathVariable Task.TaskStatus status,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer size,
+                                              @RequestParam(required = false) String fields,
+                                              @RequestParam(defaultValue = "false") boolean unpaged,
+                                              WebRequest request) {
+        if (unpaged) {
+            paginationProperties.checkUnpagedAllowed();
+            return ConditionalResponses.hashed(request, objectMapper, taskService.getTasksByStatus(status));
+        }
+        return ConditionalResponses.hashed(request, objectMapper,
+                taskService.getTasksByStatus(status, cursor, size, fields));
+    }
+
+    @GetMapping(value = "/status/{status}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasksByStatus(@PathVariable Task.TaskStatus status) {
+        return ndjsonExport(() -> taskService.streamTasksByStatus(status));
     }
 
     @GetMapping("/my-tasks/status/{status}")
     public ResponseEntity<?> getMyTasksByStatus(@PathVariable Task.TaskStatus status,
-                                                 Authentication authentication) {
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size,
+                                                @RequestParam(required = false) String fields,
+                                                @RequestParam(defaultValue = "false") boolean unpaged,
+                                                Authentication authentication,
+                                                WebRequest request) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        List<Task> tasks = taskService.getTasksByAssignedUserAndStatus(userDetails.getId(), status);
-        return ResponseEntity.ok(tasks);
+        if (unpaged) {
+            paginationProperties.checkUnpagedAllowed();
+            return ConditionalResponses.hashed(request, objectMapper,
+                    taskService.getTasksByAssignedUserAndStatus(userDetails.getId(), status));
+        }
+        return ConditionalResponses.hashed(request, objectMapper,
+                taskService.getTasksByAssignedUserAndStatus(userDetails.getId(), status, cursor, size, fields));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<?> searchTasks(@RequestParam String keyword) {
-        List<Task> tasks = taskService.searchTasks(keyword);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<?> searchTasks(@RequestParam String keyword,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer size,
+                                         @RequestParam(defaultValue = "false") boolean unpaged) {
+        if (unpaged) {
+            paginationProperties.checkUnpagedAllowed();
+            return ResponseEntity.ok(taskService.searchTasks(keyword));
+        }
+        return ResponseEntity.ok(taskService.searchTasks(keyword, cursor, size));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<?> updateTask(@PathVariable String id,
-                                        @Valid @RequestBody TaskRequest taskRequest) {
+                                        @Valid @RequestBody TaskRequest taskRequest,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Task task = new Task();
         task.setTitle(taskRequest.getTitle());
         task.setDescription(taskRequest.getDescription());
@@ -114,8 +232,10 @@ public class TaskController {
         task.setAssignedTo(taskRequest.getAssignedTo());
         task.setProjectId(taskRequest.getProjectId());
 
-        Task updatedTask = taskService.updateTask(id, task);
-        return ResponseEntity.ok(updatedTask);
+        Task updatedTask = taskService.updateTask(id, task, ConditionalResponses.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(ConditionalResponses.versionETag(updatedTask.getVersion()))
+                .body(updatedTask);
     }
 
     @DeleteMapping("/{id}")
@@ -146,42 +266,82 @@ public class TaskController {
         return ResponseEntity.ok(task);
     }
 
-    @PostMapping("/{id}/attachments")
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<?> getComments(@PathVariable String id,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(taskService.getComments(id, cursor, size));
+    }
+
+    @PostMapping(value = "/{id}/attachments", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> addAttachment(@PathVariable String id,
                                            @RequestParam("file") MultipartFile file,
                                            Authentication authentication) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
-        try {
-            // Create upload directory if it doesn't exist
-            File uploadDir = new File(UPLOAD_DIR);
-            if (!uploadDir.exists()) {
-                uploadDir.mkdirs();
-            }
-
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String uniqueFilename = UUID.randomUUID().toString() + "_" + originalFilename;
-            Path filePath = Paths.get(UPLOAD_DIR + uniqueFilename);
-
-            // Save file
-            Files.write(filePath, file.getBytes());
-
-            // Create attachment object
-            Attachment attachment = new Attachment();
-            attachment.setFileName(originalFilename);
-            attachment.setFileType(file.getContentType());
-            attachment.setFileUrl(UPLOAD_DIR + uniqueFilename);
-            attachment.setFileSize(file.getSize());
-            attachment.setUploadedBy(userDetails.getId());
+        try (InputStream content = file.getInputStream()) {
+            Attachment attachment = attachmentStorageService.store(
+                    content, file.getOriginalFilename(), file.getContentType());
+            return ResponseEntity.ok(attachToTask(id, attachment, userDetails.getId()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error uploading file: " + e.getMessage()));
+        }
+    }
 
-            Task task = taskService.addAttachment(id, attachment);
-            return ResponseEntity.ok(task);
+    // Raw body upload: the request stream goes straight to disk without multipart parsing or spooling
+    @PostMapping(value = "/{id}/attachments", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> uploadAttachment(@PathVariable String id,
+                                              @RequestParam String fileName,
+                                              @RequestParam(required = false) String fileType,
+                                              HttpServletRequest request,
+                                              Authentication authentication) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
 
+        try (InputStream content = request.getInputStream()) {
+            Attachment attachment = attachmentStorageService.store(content, fileName,
+                    fileType != null ? fileType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            return ResponseEntity.ok(attachToTask(id, attachment, userDetails.getId()));
         } catch (IOException e) {
             return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error uploading file: " + e.getMessage()));
         }
     }
-}
 
+    @GetMapping("/{id}/attachments/{attachmentId}")
+    public void downloadAttachment(@PathVariable String id,
+                                   @PathVariable String attachmentId,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        Attachment attachment = taskService.getAttachment(id, attachmentId);
+        attachmentDownloadService.serve(attachment, request, response);
+    }
+
+    private Task attachToTask(String taskId, Attachment attachment, String userId) {
+        attachment.setUploadedBy(userId);
+        try {
+            return taskService.addAttachment(taskId, attachment);
+        } catch (RuntimeException e) {
+            attachmentStorageService.release(attachment);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjsonExport(Supplier<Stream<Task>> source) {
+        StreamingResponseBody body = outputStream -> {
+            // The cursor is opened on the writer thread and only advances once the previous line was written,
+            // so a slow client throttles the Mongo reads instead of growing the heap
+            try (Stream<Task> tasks = source.get()) {
+                Iterator<Task> iterator = tasks.iterator();
+                while (iterator.hasNext()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
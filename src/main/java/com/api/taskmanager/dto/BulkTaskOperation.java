@@ -0,0 +1,27 @@
+package com.api.taskmanager.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskOperation {
+    @NotNull(message = "Operation type is required")
+    private Type op;
+
+    // Task id, for every operation except create
+    private String id;
+
+    // Fields for create and update
+    private TaskRequest task;
+
+    // Assignee for assign
+    private String userId;
+
+    public enum Type {
+        CREATE, UPDATE, ASSIGN, COMPLETE, DELETE
+    }
+}
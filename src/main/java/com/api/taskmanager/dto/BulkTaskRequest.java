@@ -0,0 +1,20 @@
+package com.api.taskmanager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskRequest {
+    // Ordered batches stop at the first failing item, unordered ones run every valid item
+    private boolean ordered;
+
+    @NotEmpty(message = "At least one operation is required")
+    private List<@Valid BulkTaskOperation> operations;
+}
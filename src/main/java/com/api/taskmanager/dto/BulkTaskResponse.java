@@ -0,0 +1,16 @@
+package com.api.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskResponse {
+    private int succeeded;
+    private int failed;
+    private List<BulkTaskResult> results;
+}
@@ -0,0 +1,23 @@
+package com.api.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskResult {
+    private int index;
+    private BulkTaskOperation.Type op;
+    private String id;
+    private Status status;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public enum Status {
+        OK, NOT_FOUND, INVALID, FAILED, SKIPPED
+    }
+}
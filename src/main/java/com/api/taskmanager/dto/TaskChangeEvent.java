@@ -0,0 +1,31 @@
+package com.api.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One change to a task, pushed to subscribers of the task's project. The id is the change-stream resume token
+// and is sent as the SSE event id, so a client reconnecting with Last-Event-ID continues after it.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskChangeEvent {
+    private String id;
+    private Type type;
+    private String projectId;
+    private String taskId;
+    private TaskView task;
+    private LocalDateTime at;
+
+    public enum Type {
+        CREATED, UPDATED, COMMENT_ADDED, ATTACHMENT_ADDED,
+        // Pushed by DeadlineScheduler rather than the change stream, so they carry no id and are not replayed
+        DUE_SOON, OVERDUE,
+        // Events were missed and cannot be replayed; the client should reload the task list
+        RESET
+    }
+}
@@ -0,0 +1,7 @@
+package com.api.taskmanager.dto;
+
+// Which tasks a listing covers: every task, or only those in the caller's projects or assigned to them
+public enum TaskScope {
+    ALL,
+    MEMBER
+}
@@ -0,0 +1,83 @@
+package com.api.taskmanager.dto;
+
+import com.api.taskmanager.model.Attachment;
+import com.api.taskmanager.model.Comment;
+import com.api.taskmanager.model.Task;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// A task read with a field projection. Every field is nullable and fields that were not loaded are left out
+// of the JSON, unlike Task whose defaults would show up as real values.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskView {
+    public static final Set<String> SUMMARY_FIELDS = Set.of("title", "status", "priority", "dueDate", "assignedTo");
+
+    public static final Set<String> ALL_FIELDS = Set.of("title", "description", "dueDate", "status", "priority",
+            "createdBy", "assignedTo", "projectId", "comments", "commentCount", "attachments",
+            "createdAt", "updatedAt", "completedAt", "version");
+
+    private String id;
+    private String title;
+    private String description;
+    private LocalDateTime dueDate;
+    private Task.TaskStatus status;
+    private Task.TaskPriority priority;
+    private String createdBy;
+    private String assignedTo;
+    private String projectId;
+    private List<Comment> comments;
+    private Long commentCount;
+    private List<Attachment> attachments;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+    private Long version;
+
+    // The fields kept for a task held in memory or pushed to clients: what lists show plus projectId
+    public static TaskView summaryOf(Task task) {
+        TaskView view = new TaskView();
+        view.setId(task.getId());
+        view.setTitle(task.getTitle());
+        view.setStatus(task.getStatus());
+        view.setPriority(task.getPriority());
+        view.setDueDate(task.getDueDate());
+        view.setAssignedTo(task.getAssignedTo());
+        view.setProjectId(task.getProjectId());
+        return view;
+    }
+
+    // Parses a fields= parameter: absent means the summary, "all" means every field (returned as null),
+    // otherwise a comma separated list of field names, where an unknown name is a 400. The id is always included,
+    // so "id" alone resolves to an empty set.
+    public static Set<String> resolveFields(String fields) {
+        if (fields == null || fields.isBlank() || fields.equalsIgnoreCase("summary")) {
+            return SUMMARY_FIELDS;
+        }
+        if (fields.equalsIgnoreCase("all")) {
+            return null;
+        }
+
+        Set<String> resolved = new LinkedHashSet<>();
+        for (String field : Arrays.stream(fields.split(",")).map(String::trim).filter(f -> !f.isEmpty()).toList()) {
+            if (field.equals("id")) {
+                continue;
+            }
+            if (!ALL_FIELDS.contains(field)) {
+                throw new RuntimeException("Unknown field: " + field);
+            }
+            resolved.add(field);
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,23 @@
+package com.api.taskmanager.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionRequest {
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    private String fileType;
+
+    @Positive(message = "Size must be positive")
+    private long size;
+
+    // SHA-256 hex of the whole file, checked on completion when given
+    private String checksum;
+}
@@ -0,0 +1,23 @@
+package com.api.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadStatusResponse {
+    private String uploadId;
+    private long size;
+    private long partSize;
+    private int partCount;
+    private long receivedBytes;
+    // Received byte ranges as [start, end] pairs, inclusive
+    private List<long[]> receivedRanges;
+    private List<Integer> missingParts;
+    private LocalDateTime expiresAt;
+}
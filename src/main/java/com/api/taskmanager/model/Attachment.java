@@ -15,6 +15,7 @@ public class Attachment {
     private String fileType;
     private String fileUrl;
     private long fileSize;
+    private String checksum;
     private String uploadedBy;
     private LocalDateTime uploadedAt;
 }
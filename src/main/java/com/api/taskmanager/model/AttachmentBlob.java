@@ -0,0 +1,26 @@
+package com.api.taskmanager.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "attachment_blobs")
+@CompoundIndex(name = "refCount_releasedAt", def = "{'refCount': 1, 'releasedAt': 1}")
+public class AttachmentBlob {
+    // SHA-256 of the content
+    @Id
+    private String id;
+
+    private long size;
+    private long refCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime releasedAt;
+}
@@ -3,17 +3,24 @@ package com.api.taskmanager.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Document(collection = "comments")
+@CompoundIndex(name = "taskId_id", def = "{'taskId': 1, '_id': 1}")
 public class Comment {
+    @Id
     private String id;
+
+    private String taskId;
     private String content;
     private String userId;
     private String username;
     private LocalDateTime createdAt;
 }
-
@@ -4,6 +4,10 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -14,6 +18,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "projects")
+@CompoundIndexes({
+        @CompoundIndex(name = "createdBy_id", def = "{'createdBy': 1, '_id': 1}"),
+        @CompoundIndex(name = "members_id", def = "{'members': 1, '_id': 1}")
+})
 public class Project {
     @Id
     private String id;
@@ -26,7 +34,12 @@ public class Project {
     
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // Optimistic lock for save(), also served as the ETag
+    @Version
+    private Long version;
     
+    @Indexed
     private boolean active = true;
 }
 
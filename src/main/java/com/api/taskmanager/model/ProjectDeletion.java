@@ -0,0 +1,47 @@
+package com.api.taskmanager.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Tombstone and progress record for a deleted project whose tasks are still being removed in the background.
+// The id is the project id.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "project_deletions")
+public class ProjectDeletion {
+    @Id
+    private String id;
+
+    // The project as it was when deleted
+    private Project project;
+
+    @Indexed
+    private DeletionStatus status;
+
+    // Instance currently running the cascade and until when it holds it
+    private String owner;
+    private LocalDateTime leaseUntil;
+
+    // Highest task id removed so far
+    private String lastTaskId;
+    private long tasksDeleted;
+    private long attachmentsReleased;
+
+    private LocalDateTime requestedAt;
+    private LocalDateTime updatedAt;
+
+    // Completed records are kept for a week
+    @Indexed(expireAfter = "7d")
+    private LocalDateTime completedAt;
+
+    public enum DeletionStatus {
+        PENDING, COMPLETED
+    }
+}
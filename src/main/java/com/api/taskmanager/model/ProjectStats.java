@@ -0,0 +1,37 @@
+package com.api.taskmanager.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "project_stats")
+public class ProjectStats {
+    // Same as the project id
+    @Id
+    private String id;
+
+    private long total;
+    private Map<String, Long> byStatus = new HashMap<>();
+    private Map<String, Long> byPriority = new HashMap<>();
+    // Keyed by user id, tasks without an assignee are counted under "unassigned"
+    private Map<String, Long> byAssignee = new HashMap<>();
+    // Open tasks past their due date. Counted when the stats are read, since a task becomes overdue without a write.
+    @Transient
+    private long overdue;
+
+    private LocalDateTime updatedAt;
+    private LocalDateTime reconciledAt;
+
+    // Bumped by every increment; reconciliation only overwrites counters that did not change while it scanned
+    private Long version;
+}
@@ -1,10 +1,16 @@
 package com.api.taskmanager.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -14,12 +20,25 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "tasks")
+@CompoundIndexes({
+        @CompoundIndex(name = "createdBy_id", def = "{'createdBy': 1, '_id': 1}"),
+        @CompoundIndex(name = "assignedTo_id", def = "{'assignedTo': 1, '_id': 1}"),
+        @CompoundIndex(name = "assignedTo_status_id", def = "{'assignedTo': 1, 'status': 1, '_id': 1}"),
+        @CompoundIndex(name = "projectId_id", def = "{'projectId': 1, '_id': 1}"),
+        @CompoundIndex(name = "status_id", def = "{'status': 1, '_id': 1}"),
+        @CompoundIndex(name = "dueDate_status", def = "{'dueDate': 1, 'status': 1}"),
+        @CompoundIndex(name = "projectId_dueDate_status", def = "{'projectId': 1, 'dueDate': 1, 'status': 1}")
+})
 public class Task {
     @Id
     private String id;
 
+    @TextIndexed(weight = 3)
     private String title;
+
+    @TextIndexed
     private String description;
+
     private LocalDateTime dueDate;
     
     private TaskStatus status = TaskStatus.OPEN;
@@ -29,13 +48,24 @@ public class Task {
     private String assignedTo;
     private String projectId;
     
+    // Only the most recent comments are embedded, the full thread lives in the comments collection
     private List<Comment> comments = new ArrayList<>();
+    private long commentCount;
     private List<Attachment> attachments = new ArrayList<>();
     
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime completedAt;
 
+    // Bumped on every write; exposed as the ETag and checked against If-Match
+    @Version
+    private Long version;
+
+    // Only populated for search results
+    @TextScore
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Float score;
+
     public enum TaskStatus {
         OPEN, IN_PROGRESS, COMPLETED, CANCELLED
     }
@@ -0,0 +1,43 @@
+package com.api.taskmanager.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "upload_sessions")
+public class UploadSession {
+    @Id
+    private String id;
+
+    private String taskId;
+    private String userId;
+    private String fileName;
+    private String fileType;
+    private long size;
+    private long partSize;
+    private int partCount;
+    // Expected SHA-256 of the assembled file, optional
+    private String checksum;
+    private Set<Integer> receivedParts = new HashSet<>();
+    private UploadStatus status;
+    // Part writes in progress; the session can only move to COMPLETING while there are none
+    private int activeWrites;
+    private LocalDateTime createdAt;
+
+    @Indexed
+    private LocalDateTime expiresAt;
+
+    public enum UploadStatus {
+        UPLOADING, COMPLETING
+    }
+}
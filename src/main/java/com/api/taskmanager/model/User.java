@@ -34,9 +34,14 @@ public class User {
     private Set<String> roles = new HashSet<>();
 
     private LocalDateTime createdAt;
+
+    @Indexed
     private LocalDateTime updatedAt;
 
     private boolean enabled = true;
+
+    // Bumped whenever a value carried in the JWT claims changes, so older tokens stop being accepted
+    private long authVersion;
 }
 
 
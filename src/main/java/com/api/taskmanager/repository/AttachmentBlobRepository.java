@@ -0,0 +1,13 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.AttachmentBlob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@Repository
+public interface AttachmentBlobRepository extends MongoRepository<AttachmentBlob, String>, AttachmentBlobRepositoryCustom {
+    Stream<AttachmentBlob> streamByRefCountLessThanEqualAndReleasedAtBefore(long refCount, LocalDateTime releasedAt);
+}
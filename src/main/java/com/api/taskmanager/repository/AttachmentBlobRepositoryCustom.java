@@ -0,0 +1,11 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.AttachmentBlob;
+
+import java.time.LocalDateTime;
+
+public interface AttachmentBlobRepositoryCustom {
+    void acquire(String checksum, long size);
+    void release(String checksum);
+    AttachmentBlob removeIfUnreferenced(String checksum, LocalDateTime releasedBefore);
+}
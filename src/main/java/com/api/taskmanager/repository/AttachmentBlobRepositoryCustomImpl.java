@@ -0,0 +1,42 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.AttachmentBlob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+public class AttachmentBlobRepositoryCustomImpl implements AttachmentBlobRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void acquire(String checksum, long size) {
+        Update update = new Update()
+                .inc("refCount", 1)
+                .setOnInsert("size", size)
+                .setOnInsert("createdAt", LocalDateTime.now());
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(checksum)), update, AttachmentBlob.class);
+    }
+
+    @Override
+    public void release(String checksum) {
+        Update update = new Update()
+                .inc("refCount", -1)
+                .set("releasedAt", LocalDateTime.now());
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(checksum)), update, AttachmentBlob.class);
+    }
+
+    // Only removes the record if nothing acquired it again since it was selected for collection
+    @Override
+    public AttachmentBlob removeIfUnreferenced(String checksum, LocalDateTime releasedBefore) {
+        Query query = Query.query(Criteria.where("_id").is(checksum)
+                .and("refCount").lte(0)
+                .and("releasedAt").lt(releasedBefore));
+        return mongoTemplate.findAndRemove(query, AttachmentBlob.class);
+    }
+}
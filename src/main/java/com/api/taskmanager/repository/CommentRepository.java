@@ -0,0 +1,14 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.Comment;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface CommentRepository extends MongoRepository<Comment, String>, CommentRepositoryCustom {
+    long countByTaskId(String taskId);
+    void deleteByTaskId(String taskId);
+    void deleteByTaskIdIn(Collection<String> taskIds);
+}
@@ -0,0 +1,10 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.Comment;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.List;
+
+public interface CommentRepositoryCustom {
+    List<Comment> findPage(Criteria criteria, String afterId, int limit);
+}
@@ -0,0 +1,20 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.Comment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Comment> findPage(Criteria criteria, String afterId, int limit) {
+        return KeysetPaging.fetch(mongoTemplate, new Query(criteria), Comment.class, afterId, limit);
+    }
+}
@@ -0,0 +1,39 @@
+package com.api.taskmanager.repository;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+public final class KeysetPaging {
+
+    private KeysetPaging() {
+    }
+
+    // Seeks past the last seen _id instead of skipping, so every page costs the same regardless of depth
+    public static <T> List<T> fetch(MongoOperations mongoOperations, Query query, Class<T> type,
+                                    String afterId, int limit) {
+        return mongoOperations.find(seek(query, afterId, limit + 1), type);
+    }
+
+    // Reads the entity's collection into a different result type, such as a DTO for a projected query
+    public static <T> List<T> fetch(MongoOperations mongoOperations, Query query, Class<?> entityType,
+                                    Class<T> resultType, String afterId, int limit) {
+        return mongoOperations.query(entityType).as(resultType).matching(seek(query, afterId, limit + 1)).all();
+    }
+
+    // Orders by _id and starts after afterId when given; a null limit reads to the end
+    public static Query seek(Query query, String afterId, Integer limit) {
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(afterId)));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "_id"));
+        if (limit != null) {
+            query.limit(limit);
+        }
+        return query;
+    }
+}
@@ -0,0 +1,9 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.ProjectDeletion;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProjectDeletionRepository extends MongoRepository<ProjectDeletion, String>, ProjectDeletionRepositoryCustom {
+}
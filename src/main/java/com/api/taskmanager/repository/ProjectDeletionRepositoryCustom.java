@@ -0,0 +1,12 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.ProjectDeletion;
+
+import java.time.LocalDateTime;
+
+public interface ProjectDeletionRepositoryCustom {
+    ProjectDeletion claim(String owner, LocalDateTime leaseUntil);
+    boolean recordProgress(String projectId, String owner, String lastTaskId, int tasksDeleted,
+                           int attachmentsReleased, LocalDateTime leaseUntil);
+    boolean complete(String projectId, String owner);
+}
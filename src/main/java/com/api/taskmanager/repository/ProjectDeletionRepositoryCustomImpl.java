@@ -0,0 +1,63 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.ProjectDeletion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+public class ProjectDeletionRepositoryCustomImpl implements ProjectDeletionRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Takes the oldest pending deletion that no instance holds, or whose holder stopped renewing its lease
+    @Override
+    public ProjectDeletion claim(String owner, LocalDateTime leaseUntil) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where("status").is(ProjectDeletion.DeletionStatus.PENDING)
+                        .orOperator(Criteria.where("leaseUntil").is(null), Criteria.where("leaseUntil").lt(now)))
+                .with(Sort.by(Sort.Direction.ASC, "requestedAt"));
+        Update update = new Update()
+                .set("owner", owner)
+                .set("leaseUntil", leaseUntil)
+                .set("updatedAt", now);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                ProjectDeletion.class);
+    }
+
+    // Returns false if another instance took the deletion over, in which case the caller must stop
+    @Override
+    public boolean recordProgress(String projectId, String owner, String lastTaskId, int tasksDeleted,
+                                  int attachmentsReleased, LocalDateTime leaseUntil) {
+        Update update = new Update()
+                .set("lastTaskId", lastTaskId)
+                .inc("tasksDeleted", tasksDeleted)
+                .inc("attachmentsReleased", attachmentsReleased)
+                .set("leaseUntil", leaseUntil)
+                .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(owned(projectId, owner), update, ProjectDeletion.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean complete(String projectId, String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("status", ProjectDeletion.DeletionStatus.COMPLETED)
+                .unset("leaseUntil")
+                .set("updatedAt", now)
+                .set("completedAt", now);
+        return mongoTemplate.updateFirst(owned(projectId, owner), update, ProjectDeletion.class).getMatchedCount() > 0;
+    }
+
+    private Query owned(String projectId, String owner) {
+        return Query.query(Criteria.where("_id").is(projectId)
+                .and("owner").is(owner)
+                .and("status").is(ProjectDeletion.DeletionStatus.PENDING));
+    }
+}
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface ProjectRepository extends MongoRepository<Project, String> {
+public interface ProjectRepository extends MongoRepository<Project, String>, ProjectRepositoryCustom {
     List<Project> findByCreatedBy(String createdBy);
     List<Project> findByMembersContaining(String userId);
     List<Project> findByActiveTrue();
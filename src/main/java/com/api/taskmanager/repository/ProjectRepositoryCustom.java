@@ -0,0 +1,12 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.Project;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+public interface ProjectRepositoryCustom {
+    List<Project> findPage(Criteria criteria, String afterId, int limit);
+    Project findAndModify(String projectId, Update update);
+}
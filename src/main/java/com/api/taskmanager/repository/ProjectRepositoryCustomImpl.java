@@ -0,0 +1,31 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.Project;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+public class ProjectRepositoryCustomImpl implements ProjectRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Project> findPage(Criteria criteria, String afterId, int limit) {
+        return KeysetPaging.fetch(mongoTemplate, new Query(criteria), Project.class, afterId, limit);
+    }
+
+    @Override
+    public Project findAndModify(String projectId, Update update) {
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(projectId)),
+                update.inc("version", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                Project.class);
+    }
+}
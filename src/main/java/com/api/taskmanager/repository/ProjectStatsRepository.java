@@ -0,0 +1,9 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.ProjectStats;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProjectStatsRepository extends MongoRepository<ProjectStats, String>, ProjectStatsRepositoryCustom {
+}
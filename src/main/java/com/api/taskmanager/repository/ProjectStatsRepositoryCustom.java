@@ -0,0 +1,15 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.ProjectStats;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface ProjectStatsRepositoryCustom {
+    void increment(String projectId, Map<String, Long> deltas);
+    long countOverdue(String projectId, LocalDateTime now);
+    Map<String, ProjectStats> aggregateFromTasks();
+    Map<String, Long> findVersions();
+    boolean replaceIfUnchanged(ProjectStats stats, Long expectedVersion);
+    boolean deleteIfUnchanged(String projectId, Long expectedVersion);
+}
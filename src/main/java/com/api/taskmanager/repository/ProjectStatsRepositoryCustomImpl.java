@@ -0,0 +1,110 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.ProjectStats;
+import com.api.taskmanager.model.Task;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ProjectStatsRepositoryCustomImpl implements ProjectStatsRepositoryCustom {
+
+    private static final String UNASSIGNED = "unassigned";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // A single upserting $inc, so concurrent task writes never lose each other's counts
+    @Override
+    public void increment(String projectId, Map<String, Long> deltas) {
+        Update update = new Update().set("updatedAt", LocalDateTime.now()).inc("version", 1);
+        deltas.forEach(update::inc);
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(projectId)), update, ProjectStats.class);
+    }
+
+    // Answered from the projectId_dueDate_status index
+    @Override
+    public long countOverdue(String projectId, LocalDateTime now) {
+        return mongoTemplate.count(Query.query(Criteria.where("projectId").is(projectId)
+                .and("dueDate").lt(now)
+                .and("status").ne(Task.TaskStatus.COMPLETED)), Task.class);
+    }
+
+    // Recomputes every project's counters from the tasks collection in one grouped pass
+    @Override
+    public Map<String, ProjectStats> aggregateFromTasks() {
+        Map<String, ProjectStats> stats = new HashMap<>();
+
+        Aggregation breakdown = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("projectId").ne(null)),
+                Aggregation.group("projectId", "status", "priority", "assignedTo").count().as("count"));
+        for (Document row : mongoTemplate.aggregate(breakdown, Task.class, Document.class)) {
+            Document key = row.get("_id", Document.class);
+            long count = ((Number) row.get("count")).longValue();
+            ProjectStats project = stats.computeIfAbsent(key.getString("projectId"), this::emptyStats);
+
+            project.setTotal(project.getTotal() + count);
+            project.getByStatus().merge(String.valueOf(key.get("status")), count, Long::sum);
+            project.getByPriority().merge(String.valueOf(key.get("priority")), count, Long::sum);
+            String assignee = key.getString("assignedTo");
+            project.getByAssignee().merge(assignee != null ? assignee : UNASSIGNED, count, Long::sum);
+        }
+
+        return stats;
+    }
+
+    @Override
+    public Map<String, Long> findVersions() {
+        Query query = new Query();
+        query.fields().include("version");
+        Map<String, Long> versions = new HashMap<>();
+        mongoTemplate.find(query, ProjectStats.class).forEach(stats -> versions.put(stats.getId(), stats.getVersion()));
+        return versions;
+    }
+
+    // Replaces the counters only while the document is still at expectedVersion, null meaning it had no version or
+    // did not exist. If an increment landed in between, the upsert's insert fails on the _id and nothing is written.
+    @Override
+    public boolean replaceIfUnchanged(ProjectStats stats, Long expectedVersion) {
+        Update update = new Update()
+                .set("total", stats.getTotal())
+                .set("byStatus", stats.getByStatus())
+                .set("byPriority", stats.getByPriority())
+                .set("byAssignee", stats.getByAssignee())
+                .set("updatedAt", stats.getUpdatedAt())
+                .set("reconciledAt", stats.getReconciledAt())
+                .unset("overdue");
+        try {
+            mongoTemplate.upsert(atVersion(stats.getId(), expectedVersion), update, ProjectStats.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean deleteIfUnchanged(String projectId, Long expectedVersion) {
+        return mongoTemplate.remove(atVersion(projectId, expectedVersion), ProjectStats.class).getDeletedCount() > 0;
+    }
+
+    private Query atVersion(String projectId, Long version) {
+        Criteria criteria = Criteria.where("_id").is(projectId);
+        return Query.query(version != null
+                ? criteria.and("version").is(version)
+                : criteria.and("version").exists(false));
+    }
+
+    private ProjectStats emptyStats(String projectId) {
+        ProjectStats stats = new ProjectStats();
+        stats.setId(projectId);
+        return stats;
+    }
+}
@@ -0,0 +1,10 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.Project;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReactiveProjectRepository extends ReactiveMongoRepository<Project, String>,
+        ReactiveProjectRepositoryCustom {
+}
@@ -0,0 +1,9 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.Project;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveProjectRepositoryCustom {
+    Flux<Project> findPage(Criteria criteria, String afterId, Integer limit);
+}
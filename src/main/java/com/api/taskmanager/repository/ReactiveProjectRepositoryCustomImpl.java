@@ -0,0 +1,20 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.Project;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+public class ReactiveProjectRepositoryCustomImpl implements ReactiveProjectRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    // A null limit streams every match
+    @Override
+    public Flux<Project> findPage(Criteria criteria, String afterId, Integer limit) {
+        return reactiveMongoTemplate.find(KeysetPaging.seek(new Query(criteria), afterId, limit), Project.class);
+    }
+}
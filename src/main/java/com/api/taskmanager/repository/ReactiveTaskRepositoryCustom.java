@@ -0,0 +1,11 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.dto.TaskView;
+import org.springframework.data.mongodb.core.query.Criteria;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+
+public interface ReactiveTaskRepositoryCustom {
+    Flux<TaskView> findPage(Criteria criteria, Set<String> fields, String afterId, Integer limit);
+}
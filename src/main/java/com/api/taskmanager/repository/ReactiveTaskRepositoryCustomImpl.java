@@ -0,0 +1,29 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.dto.TaskView;
+import com.api.taskmanager.model.Task;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+
+public class ReactiveTaskRepositoryCustomImpl implements ReactiveTaskRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    // Same projection rules as TaskRepositoryCustomImpl.findPage; a null limit streams every match
+    @Override
+    public Flux<TaskView> findPage(Criteria criteria, Set<String> fields, String afterId, Integer limit) {
+        Query query = new Query(criteria);
+        if (fields != null) {
+            query.fields().include("_id").include(fields.toArray(String[]::new));
+        }
+        return reactiveMongoTemplate.query(Task.class).as(TaskView.class)
+                .matching(KeysetPaging.seek(query, afterId, limit))
+                .all();
+    }
+}
@@ -0,0 +1,27 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.dto.TaskView;
+import com.api.taskmanager.model.Attachment;
+import com.api.taskmanager.model.Task;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface TaskRepositoryCustom {
+    List<TaskView> findPage(Criteria criteria, Set<String> fields, String afterId, int limit);
+    Stream<Task> stream(Criteria criteria);
+    Task findAndModify(String taskId, Long expectedVersion, Update update);
+    Task findAndModifyReturningOld(String taskId, Long expectedVersion, Update update);
+    Task applySet(Task task, Update update);
+    Task findAndRemove(String taskId);
+    List<Task> search(String keyword, int offset, int limit);
+    Attachment findAttachment(String taskId, String attachmentId);
+    List<Task> findForBulk(Collection<String> taskIds);
+    List<Task> findProjectBatch(String projectId, String afterId, int limit);
+    BulkOperations bulkOps(boolean ordered);
+}
@@ -0,0 +1,162 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.dto.TaskView;
+import com.api.taskmanager.model.Attachment;
+import com.api.taskmanager.model.Task;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${tasks.export.cursor-batch-size:500}")
+    private int exportBatchSize;
+
+    // The projection is applied by the server, so excluded fields are never sent, decoded or serialized.
+    // Null fields loads the whole document; an empty set loads only the id, which is always included since an
+    // inclusion projection without any field would return everything.
+    @Override
+    public List<TaskView> findPage(Criteria criteria, Set<String> fields, String afterId, int limit) {
+        Query query = new Query(criteria);
+        if (fields != null) {
+            query.fields().include("_id").include(fields.toArray(String[]::new));
+        }
+        return KeysetPaging.fetch(mongoTemplate, query, Task.class, TaskView.class, afterId, limit);
+    }
+
+    @Override
+    public Stream<Task> stream(Criteria criteria) {
+        Query query = new Query(criteria).cursorBatchSize(exportBatchSize);
+        return mongoTemplate.stream(query, Task.class);
+    }
+
+    // Applies the update server-side and returns the new document in the same round trip, or null if the task is gone
+    // or no longer at the expected version
+    @Override
+    public Task findAndModify(String taskId, Long expectedVersion, Update update) {
+        return mongoTemplate.findAndModify(
+                byIdAndVersion(taskId, expectedVersion),
+                update.inc("version", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                Task.class);
+    }
+
+    // Same round trip as findAndModify, but returns the document as it was before the update
+    @Override
+    public Task findAndModifyReturningOld(String taskId, Long expectedVersion, Update update) {
+        return mongoTemplate.findAndModify(
+                byIdAndVersion(taskId, expectedVersion),
+                update.inc("version", 1),
+                FindAndModifyOptions.options().returnNew(false),
+                Task.class);
+    }
+
+    // Derives the updated document from the previous one by replaying the $set and $inc through the converter,
+    // which avoids a second read for updates made only of top-level fields
+    @Override
+    public Task applySet(Task task, Update update) {
+        Document updateObject = update.getUpdateObject();
+        if (updateObject.keySet().stream().anyMatch(operator -> !operator.equals("$set") && !operator.equals("$inc"))) {
+            return mongoTemplate.findById(task.getId(), Task.class);
+        }
+
+        MongoConverter converter = mongoTemplate.getConverter();
+        Document document = new Document();
+        converter.write(task, document);
+        Document set = updateObject.get("$set", Document.class);
+        if (set != null) {
+            set.forEach((field, value) -> document.put(field, converter.convertToMongoType(value)));
+        }
+        Document inc = updateObject.get("$inc", Document.class);
+        if (inc != null) {
+            inc.forEach((field, value) -> document.put(field,
+                    ((Number) document.getOrDefault(field, 0L)).longValue() + ((Number) value).longValue()));
+        }
+        return converter.read(Task.class, document);
+    }
+
+    // Uses the weighted text index on title and description: terms are tokenized and stemmed, results ranked by score.
+    // A limit of 0 returns every match.
+    @Override
+    public List<Task> search(String keyword, int offset, int limit) {
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(keyword))
+                .sortByScore()
+                .skip(offset)
+                .limit(limit);
+        return mongoTemplate.find(query, Task.class);
+    }
+
+    // Returns the removed task, or null when it was already gone, so concurrent deletes agree on a single winner
+    @Override
+    public Task findAndRemove(String taskId) {
+        return mongoTemplate.findAndRemove(Query.query(Criteria.where("_id").is(taskId)), Task.class);
+    }
+
+    // Positional projection: only the matching attachment is read, not the whole task
+    @Override
+    public Attachment findAttachment(String taskId, String attachmentId) {
+        Query query = Query.query(Criteria.where("_id").is(taskId).and("attachments.id").is(attachmentId));
+        query.fields().position("attachments", 1);
+
+        Task task = mongoTemplate.findOne(query, Task.class);
+        if (task == null || task.getAttachments().isEmpty()) {
+            return null;
+        }
+        return task.getAttachments().get(0);
+    }
+
+    // One $in round trip that returns only the fields bulk operations need: attachments, the counted fields and the
+    // version and updatedAt that batched writes are filtered on and checked against
+    @Override
+    public List<Task> findForBulk(Collection<String> taskIds) {
+        Query query = Query.query(Criteria.where("_id").in(taskIds));
+        query.fields().include("attachments", "title", "projectId", "status", "priority", "assignedTo", "dueDate",
+                "updatedAt", "version");
+        return mongoTemplate.find(query, Task.class);
+    }
+
+    // Only ids and attachments, which is all a project cascade needs to remove a task and release its files
+    @Override
+    public List<Task> findProjectBatch(String projectId, String afterId, int limit) {
+        Query query = new Query(Criteria.where("projectId").is(projectId));
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(afterId)));
+        }
+        query.fields().include("attachments");
+        query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(limit);
+        return mongoTemplate.find(query, Task.class);
+    }
+
+    @Override
+    public BulkOperations bulkOps(boolean ordered) {
+        return mongoTemplate.bulkOps(ordered ? BulkOperations.BulkMode.ORDERED : BulkOperations.BulkMode.UNORDERED,
+                Task.class);
+    }
+
+    private Query byIdAndVersion(String taskId, Long expectedVersion) {
+        Criteria criteria = Criteria.where("_id").is(taskId);
+        if (expectedVersion != null) {
+            criteria.and("version").is(expectedVersion);
+        }
+        return Query.query(criteria);
+    }
+}
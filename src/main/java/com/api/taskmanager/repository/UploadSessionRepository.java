@@ -0,0 +1,13 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.UploadSession;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@Repository
+public interface UploadSessionRepository extends MongoRepository<UploadSession, String>, UploadSessionRepositoryCustom {
+    Stream<UploadSession> streamByExpiresAtBefore(LocalDateTime expiresAt);
+}
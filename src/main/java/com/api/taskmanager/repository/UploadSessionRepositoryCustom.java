@@ -0,0 +1,13 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.UploadSession;
+
+import java.time.LocalDateTime;
+
+public interface UploadSessionRepositoryCustom {
+    UploadSession beginPartWrite(String sessionId);
+    UploadSession markPartReceived(String sessionId, int partNumber, LocalDateTime expiresAt);
+    void abortPartWrite(String sessionId);
+    UploadSession startCompleting(String sessionId, int partCount);
+    UploadSession changeStatus(String sessionId, UploadSession.UploadStatus from, UploadSession.UploadStatus to);
+}
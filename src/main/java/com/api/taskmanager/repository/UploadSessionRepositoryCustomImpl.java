@@ -0,0 +1,63 @@
+package com.api.taskmanager.repository;
+
+import com.api.taskmanager.model.UploadSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+public class UploadSessionRepositoryCustomImpl implements UploadSessionRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Registers a part write, only while the session is still UPLOADING
+    @Override
+    public UploadSession beginPartWrite(String sessionId) {
+        Query query = Query.query(Criteria.where("_id").is(sessionId)
+                .and("status").is(UploadSession.UploadStatus.UPLOADING));
+        return mongoTemplate.findAndModify(query, new Update().inc("activeWrites", 1),
+                FindAndModifyOptions.options().returnNew(true), UploadSession.class);
+    }
+
+    // $addToSet keeps parallel part uploads from overwriting each other's progress
+    @Override
+    public UploadSession markPartReceived(String sessionId, int partNumber, LocalDateTime expiresAt) {
+        Update update = new Update()
+                .addToSet("receivedParts", partNumber)
+                .inc("activeWrites", -1)
+                .set("expiresAt", expiresAt);
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(sessionId)), update,
+                FindAndModifyOptions.options().returnNew(true), UploadSession.class);
+    }
+
+    @Override
+    public void abortPartWrite(String sessionId) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(sessionId)),
+                new Update().inc("activeWrites", -1), UploadSession.class);
+    }
+
+    // Succeeds only when every part arrived and none is being written, so the file cannot change while it is
+    // assembled. A part write cut short by a crash keeps the session from completing until it expires.
+    @Override
+    public UploadSession startCompleting(String sessionId, int partCount) {
+        Query query = Query.query(Criteria.where("_id").is(sessionId)
+                .and("status").is(UploadSession.UploadStatus.UPLOADING)
+                .and("activeWrites").is(0)
+                .and("receivedParts").size(partCount));
+        return mongoTemplate.findAndModify(query, new Update().set("status", UploadSession.UploadStatus.COMPLETING),
+                FindAndModifyOptions.options().returnNew(true), UploadSession.class);
+    }
+
+    @Override
+    public UploadSession changeStatus(String sessionId, UploadSession.UploadStatus from,
+                                      UploadSession.UploadStatus to) {
+        Query query = Query.query(Criteria.where("_id").is(sessionId).and("status").is(from));
+        return mongoTemplate.findAndModify(query, new Update().set("status", to),
+                FindAndModifyOptions.options().returnNew(true), UploadSession.class);
+    }
+}
@@ -1,5 +1,6 @@
 package com.api.taskmanager.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +24,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private UserVersionTable userVersionTable;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -30,10 +37,8 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = jwt != null ? authenticate(jwt) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -47,6 +52,48 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails authenticate(String jwt) {
+        if (userVersionTable.isEnabled()) {
+            return authenticateFromClaims(jwt);
+        }
+        return authenticateWithLookup(jwt);
+    }
+
+    // Claims mode: the principal comes from the verified token and is checked against the in-memory version
+    // table. Only tokens without identity claims or users the table has not seen yet go to the database.
+    private UserDetails authenticateFromClaims(String jwt) {
+        Claims claims = jwtUtils.parseClaims(jwt);
+        if (claims == null) {
+            return null;
+        }
+
+        UserDetailsImpl userDetails = jwtUtils.getUserDetailsFromClaims(claims);
+        if (userDetails != null) {
+            Boolean current = userVersionTable.isCurrent(userDetails.getId(), userDetails.getAuthVersion());
+            if (current != null) {
+                return current ? userDetails : null;
+            }
+        }
+        return authenticateWithLookup(jwt);
+    }
+
+    // A cached token was already verified, so a hit skips both signature verification and the user lookup
+    private UserDetails authenticateWithLookup(String jwt) {
+        UserDetailsImpl cached = principalCache.get(jwt);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = jwtUtils.parseClaims(jwt);
+        if (claims == null) {
+            return null;
+        }
+
+        long loadedAt = principalCache.generation();
+        UserDetailsImpl userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername(claims.getSubject());
+        return principalCache.put(jwt, userDetails, claims.getExpiration(), loadedAt);
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
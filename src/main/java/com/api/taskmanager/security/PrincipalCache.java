@@ -0,0 +1,85 @@
+package com.api.taskmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class PrincipalCache {
+
+    @Value("${jwt.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${jwt.principal-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    private Cache<String, CachedPrincipal> cache;
+
+    // evictUser stamps the user with the next generation; entries loaded before that stamp are stale. Eviction is
+    // O(1) and stale entries are dropped when next read.
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<String, Long> evictedAt = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    public UserDetailsImpl get(String token) {
+        CachedPrincipal cached = cache.getIfPresent(token);
+        if (cached == null) {
+            return null;
+        }
+        // An entry never outlives the token it was created for, nor a later change to its user
+        if (cached.expiresAt() <= System.currentTimeMillis() || isStale(cached)) {
+            cache.invalidate(token);
+            return null;
+        }
+        return cached.userDetails();
+    }
+
+    // Read before loading the user and passed to put, so a load that raced with evictUser is not cached
+    public long generation() {
+        return generation.get();
+    }
+
+    public UserDetailsImpl put(String token, UserDetailsImpl userDetails, Date expiration, long loadedAt) {
+        // The password hash is not needed to authenticate a request, so it is not kept in memory
+        UserDetailsImpl principal = new UserDetailsImpl(
+                userDetails.getId(),
+                userDetails.getUsername(),
+                userDetails.getEmail(),
+                null,
+                userDetails.getAuthorities(),
+                userDetails.getAuthVersion());
+        long expiresAt = expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+        CachedPrincipal cached = new CachedPrincipal(principal, expiresAt, loadedAt);
+        if (!isStale(cached)) {
+            cache.put(token, cached);
+        }
+        return principal;
+    }
+
+    public void evictUser(String userId) {
+        evictedAt.put(userId, generation.incrementAndGet());
+    }
+
+    private boolean isStale(CachedPrincipal cached) {
+        return cached.loadedAt() < evictedAt.getOrDefault(cached.userDetails().getId(), 0L);
+    }
+
+    private record CachedPrincipal(UserDetailsImpl userDetails, long expiresAt, long loadedAt) {
+    }
+}
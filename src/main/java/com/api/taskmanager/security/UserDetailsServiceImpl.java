@@ -3,18 +3,32 @@ package com.api.taskmanager.security;
 import com.api.taskmanager.model.User;
 import com.api.taskmanager.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserVersionTable userVersionTable;
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -23,5 +37,22 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return UserDetailsImpl.build(user);
     }
-}
 
+    // Called after a login whose stored hash needed an upgrade. Only the password and updatedAt are written, so a
+    // profile edit running at the same time is not overwritten. The auth version stays: the password is the same,
+    // only its encoding changed, so existing tokens remain valid.
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("username").is(userDetails.getUsername())),
+                new Update().set("password", newPassword).set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+        if (user == null) {
+            throw new UsernameNotFoundException("User Not Found with username: " + userDetails.getUsername());
+        }
+
+        userVersionTable.record(user);
+        return UserDetailsImpl.build(user);
+    }
+}
@@ -0,0 +1,126 @@
+package com.api.taskmanager.security;
+
+import com.api.taskmanager.model.User;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory copy of each user's enabled flag and auth version, used to accept claims-mode tokens without a
+// database read. It is loaded once and then refreshed incrementally from users changed since the last pass.
+// Deletions leave nothing to find by updatedAt, so every full-refresh-ms a pass reads all user ids and revokes
+// the ones that are gone. Their tombstones are dropped once every token issued before the deletion has expired.
+@Component
+public class UserVersionTable {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${jwt.principal-mode:lookup}")
+    private String principalMode;
+
+    // Re-read a little before the last seen change to tolerate clock skew between instances
+    @Value("${jwt.user-versions.refresh-overlap-ms:5000}")
+    private long refreshOverlapMs;
+
+    @Value("${jwt.user-versions.full-refresh-ms:300000}")
+    private long fullRefreshMs;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpirationMs;
+
+    private final Map<String, UserVersion> versions = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastSeenUpdate;
+
+    private long lastFullRefreshNanos;
+
+    @PostConstruct
+    public void init() {
+        if (isEnabled()) {
+            refresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.user-versions.refresh-ms:30000}")
+    public void refresh() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Query query = new Query();
+        LocalDateTime since = lastSeenUpdate;
+        long started = System.nanoTime();
+        boolean full = since == null || started - lastFullRefreshNanos >= fullRefreshMs * 1_000_000;
+        if (!full) {
+            query.addCriteria(Criteria.where("updatedAt").gte(since.minusNanos(refreshOverlapMs * 1_000_000)));
+        }
+        query.fields().include("enabled").include("authVersion").include("updatedAt");
+
+        // Only users known before the read can be missing from it; users recorded meanwhile are left alone
+        Set<String> missing = full ? new HashSet<>(versions.keySet()) : Set.of();
+        LocalDateTime newest = since;
+        for (User user : mongoTemplate.find(query, User.class)) {
+            record(user);
+            if (full) {
+                missing.remove(user.getId());
+            }
+            if (user.getUpdatedAt() != null && (newest == null || user.getUpdatedAt().isAfter(newest))) {
+                newest = user.getUpdatedAt();
+            }
+        }
+        if (full) {
+            revoke(missing);
+            lastFullRefreshNanos = started;
+        }
+        lastSeenUpdate = newest;
+    }
+
+    // Deleted users keep a tombstone so their tokens are rejected without a database lookup, until the last of
+    // those tokens has expired
+    private void revoke(Set<String> missing) {
+        long now = System.currentTimeMillis();
+        for (String userId : missing) {
+            UserVersion version = versions.get(userId);
+            if (version == null || version.revokedAt() == 0) {
+                versions.put(userId, new UserVersion(false, -1, now));
+            } else if (now - version.revokedAt() > jwtExpirationMs) {
+                versions.remove(userId, version);
+            }
+        }
+    }
+
+    public void record(User user) {
+        if (!isEnabled()) {
+            return;
+        }
+        versions.put(user.getId(), new UserVersion(user.isEnabled(), user.getAuthVersion(), 0));
+    }
+
+    // TRUE if the token version is current, FALSE if the user was disabled or changed, null if the user is unknown
+    public Boolean isCurrent(String userId, long authVersion) {
+        UserVersion version = versions.get(userId);
+        if (version == null) {
+            return null;
+        }
+        return version.enabled() && version.authVersion() == authVersion;
+    }
+
+    public boolean isEnabled() {
+        return "claims".equalsIgnoreCase(principalMode);
+    }
+
+    // revokedAt is 0 for existing users
+    private record UserVersion(boolean enabled, long authVersion, long revokedAt) {
+    }
+}
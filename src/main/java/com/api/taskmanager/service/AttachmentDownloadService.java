@@ -0,0 +1,161 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.model.Attachment;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+@Service
+public class AttachmentDownloadService {
+
+    // Request attributes understood by Tomcat's NIO connector to hand a file region to sendfile()
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private AttachmentStorageService attachmentStorageService;
+
+    public void serve(Attachment attachment, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path file = attachmentStorageService.resolve(attachment);
+        if (file != null && !Files.isReadable(file)) {
+            throw new RuntimeException("Attachment content not found");
+        }
+
+        long length = file != null ? Files.size(file) : attachment.getFileSize();
+        String etag = attachment.getChecksum() != null
+                ? "\"" + attachment.getChecksum() + "\""
+                : "W/\"" + length + "-" + (file != null
+                        ? Files.getLastModifiedTime(file).toMillis() : attachment.getId()) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // A stale If-Range validator means the client's partial copy is outdated, so the whole file is sent.
+        // If-Range needs a strong comparison, and a weak ETag never matches one.
+        boolean rangeApplies = rangeHeader != null
+                && (ifRange == null || !etag.startsWith("W/") && ifRange.equals(etag));
+
+        if (rangeApplies) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // Multipart/byteranges is not supported; ignoring a multi-range request and sending 200 is allowed
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(attachment.getFileType() != null
+                ? attachment.getFileType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(attachment.getFileName(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+        response.setContentLengthLong(count);
+
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (file == null) {
+            copyStream(attachment, start, count, response);
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        // Without container sendfile support, transferTo still lets the kernel copy where the channel allows it
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ);
+             WritableByteChannel target = Channels.newChannel(response.getOutputStream())) {
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = source.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    // Stores without local files are copied through one fixed-size buffer, one chunk at a time
+    private void copyStream(Attachment attachment, long start, long count, HttpServletResponse response)
+            throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream source = attachmentStorageService.open(attachment, start)) {
+            OutputStream target = response.getOutputStream();
+            long remaining = count;
+            while (remaining > 0) {
+                int read = source.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read == -1) {
+                    break;
+                }
+                target.write(buffer, 0, read);
+                remaining -= read;
+            }
+            target.flush();
+        }
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaqueTag = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals(opaqueTag)
+                    || (value.startsWith("W/") && value.substring(2).equals(opaqueTag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,96 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.model.Attachment;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+@Service
+public class AttachmentStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentStorageService.class);
+
+    @Autowired
+    private List<AttachmentStore> attachmentStores;
+
+    @Autowired
+    private LocalAttachmentStore localAttachmentStore;
+
+    // local or gridfs; only decides where new uploads go, existing attachments are read from wherever they live
+    @Value("${attachments.store:local}")
+    private String storeName;
+
+    @Value("${attachments.max-size-bytes:5368709120}")
+    private long maxSizeBytes;
+
+    private AttachmentStore uploadStore;
+
+    @PostConstruct
+    public void init() {
+        uploadStore = attachmentStores.stream()
+                .filter(store -> store.name().equalsIgnoreCase(storeName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown attachments.store: " + storeName));
+    }
+
+    public Attachment store(InputStream content, String originalFilename, String contentType) throws IOException {
+        String fileName = sanitizeFilename(originalFilename);
+        return toAttachment(uploadStore.put(content, fileName, maxSizeBytes), fileName, contentType);
+    }
+
+    // Stores a complete file that is no longer needed where it is, such as an assembled upload session
+    public Attachment adopt(Path file, String originalFilename, String contentType) throws IOException {
+        String fileName = sanitizeFilename(originalFilename);
+        return toAttachment(uploadStore.adopt(file, fileName, maxSizeBytes), fileName, contentType);
+    }
+
+    private Attachment toAttachment(StoredBlob blob, String fileName, String contentType) {
+        Attachment attachment = new Attachment();
+        attachment.setFileName(fileName);
+        attachment.setFileType(contentType);
+        attachment.setFileUrl(blob.getLocation());
+        attachment.setFileSize(blob.getSize());
+        attachment.setChecksum(blob.getChecksum());
+        return attachment;
+    }
+
+    // Null when the content is not in a local file and has to be read through open
+    public Path resolve(Attachment attachment) {
+        return storeFor(attachment.getFileUrl()).resolve(attachment.getFileUrl());
+    }
+
+    public InputStream open(Attachment attachment, long offset) throws IOException {
+        return storeFor(attachment.getFileUrl()).open(attachment.getFileUrl(), offset);
+    }
+
+    public AttachmentStore storeFor(String location) {
+        return attachmentStores.stream()
+                .filter(store -> store.owns(location))
+                .findFirst()
+                .orElse(localAttachmentStore);
+    }
+
+    // Called once for every attachment record that goes away, to drop its reference on the stored content
+    public void release(Attachment attachment) {
+        try {
+            storeFor(attachment.getFileUrl()).release(attachment.getFileUrl());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not release attachment {}: {}", attachment.getFileUrl(), e.getMessage());
+        }
+    }
+
+    private String sanitizeFilename(String originalFilename) {
+        String fileName = StringUtils.getFilename(StringUtils.cleanPath(
+                originalFilename != null ? originalFilename : ""));
+        return StringUtils.hasText(fileName) ? fileName : "file";
+    }
+}
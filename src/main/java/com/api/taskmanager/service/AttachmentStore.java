@@ -0,0 +1,36 @@
+package com.api.taskmanager.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public interface AttachmentStore {
+
+    // Value of attachments.store that selects this store for new uploads
+    String name();
+
+    boolean owns(String location);
+
+    // Stores the content and takes one reference on it; fails once more than maxSizeBytes were read
+    StoredBlob put(InputStream content, String fileName, long maxSizeBytes) throws IOException;
+
+    // Like put, for a complete file that is no longer needed where it is. The file is consumed; stores that keep
+    // content on the same file system move it instead of copying.
+    default StoredBlob adopt(Path file, String fileName, long maxSizeBytes) throws IOException {
+        StoredBlob blob;
+        try (InputStream content = Files.newInputStream(file)) {
+            blob = put(content, fileName, maxSizeBytes);
+        }
+        Files.deleteIfExists(file);
+        return blob;
+    }
+
+    // The local file holding the content, or null when the store is not file based
+    Path resolve(String location);
+
+    InputStream open(String location, long offset) throws IOException;
+
+    // Drops the reference taken by put; the content is removed once nothing references it
+    void release(String location) throws IOException;
+}
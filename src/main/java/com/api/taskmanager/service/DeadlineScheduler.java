@@ -0,0 +1,230 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.dto.TaskView;
+import com.api.taskmanager.model.Task;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Keeps every open task with a due date in memory, ordered by the time its next deadline event is due, so
+// firing events and listing overdue tasks never scan the tasks collection. TaskService reports each write;
+// the periodic reload picks up writes made by other instances.
+@Component
+public class DeadlineScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadlineScheduler.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // How long before the due date the DUE_SOON event fires
+    @Value("${tasks.deadlines.due-soon-ms:86400000}")
+    private long dueSoonMs;
+
+    // Deadlines passed this long before startup, while the instance was down, still fire their events
+    @Value("${tasks.deadlines.catch-up-ms:3600000}")
+    private long catchUpMs;
+
+    private volatile Schedule schedule;
+
+    // Latest state of tasks written while a reload is reading, null for removed tasks; applied to the new schedule
+    private Map<String, Task> pendingChanges;
+
+    @PostConstruct
+    public void init() {
+        schedule = new Schedule(dueSoonMs, LocalDateTime.now().minus(Duration.ofMillis(catchUpMs)));
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.deadlines.reload-interval-ms:300000}",
+            initialDelayString = "${tasks.deadlines.reload-interval-ms:300000}")
+    public void reload() {
+        synchronized (this) {
+            pendingChanges = new LinkedHashMap<>();
+        }
+
+        List<TaskView> tasks = new ArrayList<>();
+        Query query = new Query(Criteria.where("dueDate").ne(null).and("status").ne(Task.TaskStatus.COMPLETED));
+        query.fields().include("title", "status", "priority", "dueDate", "assignedTo", "projectId");
+        try (Stream<Task> stream = mongoTemplate.stream(query, Task.class)) {
+            stream.forEach(task -> tasks.add(TaskView.summaryOf(task)));
+        }
+
+        Schedule loaded;
+        synchronized (this) {
+            // Placed as of the last tick, so deadlines passed since then, or while the instance was down, fire on
+            // the next tick rather than landing in due or overdue silently
+            loaded = new Schedule(dueSoonMs, schedule.advancedTo);
+            tasks.forEach(loaded::add);
+            pendingChanges.forEach((taskId, task) -> {
+                loaded.remove(taskId);
+                if (task != null) {
+                    loaded.add(TaskView.summaryOf(task));
+                }
+            });
+            pendingChanges = null;
+            schedule = loaded;
+        }
+        logger.info("Loaded {} task deadlines, {} overdue", loaded.tasks.size(), loaded.overdue.size());
+    }
+
+    // Called with the full task after every write; completed tasks and tasks without a due date are dropped
+    public synchronized void track(Task task) {
+        Schedule current = schedule;
+        current.remove(task.getId());
+        if (isTracked(task)) {
+            current.add(TaskView.summaryOf(task));
+        }
+        if (pendingChanges != null) {
+            pendingChanges.put(task.getId(), isTracked(task) ? task : null);
+        }
+    }
+
+    public synchronized void untrack(String taskId) {
+        schedule.remove(taskId);
+        if (pendingChanges != null) {
+            pendingChanges.put(taskId, null);
+        }
+    }
+
+    // Oldest due date first. Null projectId lists overdue tasks of all projects.
+    public List<TaskView> getOverdue(String projectId, int limit) {
+        return schedule.overdue(projectId, limit);
+    }
+
+    // TaskChangeFeed forwards the events to the project's SSE subscribers; any other @EventListener can take them too
+    @Scheduled(fixedDelayString = "${tasks.deadlines.tick-ms:1000}")
+    public void fireDue() {
+        List<TaskDeadlineEvent> events = new ArrayList<>();
+        synchronized (this) {
+            schedule.advance(LocalDateTime.now(), events);
+        }
+
+        // Published outside the lock so slow listeners do not hold up task writes
+        for (TaskDeadlineEvent event : events) {
+            logger.debug("Task {} is {}", event.task().getId(), event.type());
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private boolean isTracked(Task task) {
+        return task.getDueDate() != null && task.getStatus() != Task.TaskStatus.COMPLETED;
+    }
+
+    private record Deadline(LocalDateTime at, String taskId) implements Comparable<Deadline> {
+        @Override
+        public int compareTo(Deadline other) {
+            int byTime = at.compareTo(other.at);
+            return byTime != 0 ? byTime : taskId.compareTo(other.taskId);
+        }
+    }
+
+    // Each task sits in exactly one of dueSoon, due or overdue, placed against the time the schedule has advanced
+    // to, and moves forward as its deadlines pass. Overdue tasks are also kept per project. Only the overdue maps
+    // are read without the lock.
+    static final class Schedule {
+        private final long dueSoonMs;
+        private final Map<String, TaskView> tasks = new HashMap<>();
+        private final NavigableMap<Deadline, TaskView> dueSoon = new TreeMap<>();
+        private final NavigableMap<Deadline, TaskView> due = new TreeMap<>();
+        private final ConcurrentSkipListMap<Deadline, TaskView> overdue = new ConcurrentSkipListMap<>();
+        private final Map<String, ConcurrentSkipListMap<Deadline, TaskView>> overdueByProject =
+                new ConcurrentHashMap<>();
+        private LocalDateTime advancedTo;
+
+        Schedule(long dueSoonMs, LocalDateTime advancedTo) {
+            this.dueSoonMs = dueSoonMs;
+            this.advancedTo = advancedTo;
+        }
+
+        void add(TaskView task) {
+            tasks.put(task.getId(), task);
+            LocalDateTime dueDate = task.getDueDate();
+            LocalDateTime dueSoonAt = dueSoonAt(dueDate);
+            if (!dueDate.isAfter(advancedTo)) {
+                putOverdue(new Deadline(dueDate, task.getId()), task);
+            } else if (dueSoonAt.isAfter(advancedTo)) {
+                dueSoon.put(new Deadline(dueSoonAt, task.getId()), task);
+            } else {
+                due.put(new Deadline(dueDate, task.getId()), task);
+            }
+        }
+
+        void remove(String taskId) {
+            TaskView task = tasks.remove(taskId);
+            if (task == null) {
+                return;
+            }
+            Deadline byDueDate = new Deadline(task.getDueDate(), taskId);
+            dueSoon.remove(new Deadline(dueSoonAt(task.getDueDate()), taskId));
+            due.remove(byDueDate);
+            if (overdue.remove(byDueDate) != null && task.getProjectId() != null) {
+                overdueByProject.computeIfPresent(task.getProjectId(), (projectId, projectOverdue) -> {
+                    projectOverdue.remove(byDueDate);
+                    return projectOverdue.isEmpty() ? null : projectOverdue;
+                });
+            }
+        }
+
+        void advance(LocalDateTime now, List<TaskDeadlineEvent> events) {
+            Map.Entry<Deadline, TaskView> next;
+            while ((next = dueSoon.firstEntry()) != null && !next.getKey().at().isAfter(now)) {
+                dueSoon.pollFirstEntry();
+                TaskView task = next.getValue();
+                due.put(new Deadline(task.getDueDate(), task.getId()), task);
+                events.add(new TaskDeadlineEvent(TaskDeadlineEvent.Type.DUE_SOON, task));
+            }
+            while ((next = due.firstEntry()) != null && !next.getKey().at().isAfter(now)) {
+                due.pollFirstEntry();
+                putOverdue(next.getKey(), next.getValue());
+                events.add(new TaskDeadlineEvent(TaskDeadlineEvent.Type.OVERDUE, next.getValue()));
+            }
+            advancedTo = now;
+        }
+
+        List<TaskView> overdue(String projectId, int limit) {
+            NavigableMap<Deadline, TaskView> source = projectId == null ? overdue : overdueByProject.get(projectId);
+            if (source == null) {
+                return List.of();
+            }
+            return source.values().stream().limit(limit).toList();
+        }
+
+        private void putOverdue(Deadline deadline, TaskView task) {
+            overdue.put(deadline, task);
+            if (task.getProjectId() != null) {
+                overdueByProject.computeIfAbsent(task.getProjectId(), projectId -> new ConcurrentSkipListMap<>())
+                        .put(deadline, task);
+            }
+        }
+
+        private LocalDateTime dueSoonAt(LocalDateTime dueDate) {
+            return dueDate.minusNanos(TimeUnit.MILLISECONDS.toNanos(dueSoonMs));
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.api.taskmanager.service;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoGridFSException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.GridFSDownloadStream;
+import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HexFormat;
+
+// Stores content in the shared database, so every instance behind the load balancer sees the same files.
+// Like the local store it is content-addressed: each file is keyed by metadata.sha256 (unique), shared by every
+// attachment with the same content and reference-counted in metadata.refCount. Unreferenced files are deleted by
+// the same grace-period GC. Reads and writes go through the GridFS streams one chunk at a time.
+@Service
+public class GridFsAttachmentStore implements AttachmentStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(GridFsAttachmentStore.class);
+
+    static final String LOCATION_PREFIX = "gridfs:";
+
+    private static final String SHA256 = "metadata.sha256";
+    private static final String REF_COUNT = "metadata.refCount";
+    private static final String RELEASED_AT = "metadata.releasedAt";
+
+    // Set while a file is not (or no longer) addressable by its hash: "pending" until the upload is keyed,
+    // "deleting" once the GC has claimed it
+    private static final String STATE = "metadata.state";
+
+    @Autowired
+    private MongoDatabaseFactory mongoDatabaseFactory;
+
+    @Value("${attachments.gridfs.bucket:attachments}")
+    private String bucketName;
+
+    @Value("${attachments.gridfs.chunk-size-bytes:261120}")
+    private int chunkSizeBytes;
+
+    @Value("${attachments.gc.grace-ms:86400000}")
+    private long gcGraceMs;
+
+    private GridFSBucket bucket;
+
+    private MongoCollection<Document> files;
+
+    @PostConstruct
+    public void init() {
+        MongoDatabase database = mongoDatabaseFactory.getMongoDatabase();
+        bucket = GridFSBuckets.create(database, bucketName);
+        files = database.getCollection(bucketName + ".files");
+        files.createIndex(Indexes.ascending(SHA256),
+                new IndexOptions().unique(true).partialFilterExpression(Filters.exists(SHA256)));
+        files.createIndex(Indexes.ascending(REF_COUNT, RELEASED_AT),
+                new IndexOptions().partialFilterExpression(Filters.exists(REF_COUNT)));
+        files.createIndex(Indexes.ascending(STATE), new IndexOptions().partialFilterExpression(Filters.exists(STATE)));
+    }
+
+    @Override
+    public String name() {
+        return "gridfs";
+    }
+
+    @Override
+    public boolean owns(String location) {
+        return location.startsWith(LOCATION_PREFIX);
+    }
+
+    // The hash is only known once the content has been read, so the upload is written as a pending file first and
+    // then either keyed by its hash or, when that content is already stored, dropped in favour of the existing file.
+    // The driver aborts the upload and removes the chunks already written when the source stream fails.
+    @Override
+    public StoredBlob put(InputStream content, String fileName, long maxSizeBytes) throws IOException {
+        MessageDigest digest = sha256();
+        SizeLimitedInputStream source = new SizeLimitedInputStream(new DigestInputStream(content, digest), maxSizeBytes);
+
+        ObjectId fileId;
+        try {
+            fileId = bucket.uploadFromStream(fileName, source, new GridFSUploadOptions()
+                    .chunkSizeBytes(chunkSizeBytes)
+                    .metadata(new Document("state", "pending")));
+        } catch (MongoGridFSException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        String checksum = HexFormat.of().formatHex(digest.digest());
+        StoredBlob blob = new StoredBlob(LOCATION_PREFIX + checksum, checksum, source.getCount());
+        while (true) {
+            if (acquire(checksum)) {
+                delete(fileId);
+                return blob;
+            }
+            try {
+                files.updateOne(Filters.eq("_id", fileId), Updates.combine(
+                        Updates.set(SHA256, checksum),
+                        Updates.set(REF_COUNT, 1),
+                        Updates.unset(STATE)));
+                return blob;
+            } catch (MongoWriteException e) {
+                // Another upload of the same content was keyed first; take a reference on that one instead
+                if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                    delete(fileId);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public Path resolve(String location) {
+        return null;
+    }
+
+    // skip() on the download stream jumps straight to the chunk holding the offset
+    @Override
+    public InputStream open(String location, long offset) throws IOException {
+        Document file = files.find(Filters.eq(SHA256, checksum(location)))
+                .projection(Projections.include("_id"))
+                .first();
+        if (file == null) {
+            throw new IOException("Attachment content not found: " + location);
+        }
+
+        try {
+            GridFSDownloadStream stream = bucket.openDownloadStream(file.getObjectId("_id"));
+            long skipped = 0;
+            while (skipped < offset) {
+                long n = stream.skip(offset - skipped);
+                if (n <= 0) {
+                    break;
+                }
+                skipped += n;
+            }
+            return stream;
+        } catch (MongoGridFSException e) {
+            throw new IOException("Attachment content not found: " + location, e);
+        }
+    }
+
+    // Only drops the reference; the file is deleted by the GC once the grace period has passed
+    @Override
+    public void release(String location) {
+        files.updateOne(Filters.eq(SHA256, checksum(location)), Updates.combine(
+                Updates.inc(REF_COUNT, -1),
+                Updates.set(RELEASED_AT, new Date())));
+    }
+
+    // Mirrors LocalAttachmentStore.collectGarbage. Claiming a file removes its hash key in the same update, so a
+    // concurrent upload of that content either took its reference before the claim or keys a new file after it.
+    @Scheduled(fixedDelayString = "${attachments.gc.interval-ms:3600000}",
+            initialDelayString = "${attachments.gc.interval-ms:3600000}")
+    public void collectGarbage() {
+        Date cutoff = Date.from(Instant.now().minusMillis(gcGraceMs));
+        Bson unreferenced = Filters.and(Filters.lte(REF_COUNT, 0), Filters.lt(RELEASED_AT, cutoff));
+        int removed = 0;
+
+        for (Document candidate : files.find(unreferenced).projection(Projections.include("_id"))) {
+            Document claimed = files.findOneAndUpdate(
+                    Filters.and(Filters.eq("_id", candidate.get("_id")), unreferenced),
+                    Updates.combine(Updates.unset(SHA256), Updates.set(STATE, "deleting")));
+            if (claimed != null && delete(claimed.getObjectId("_id"))) {
+                removed++;
+            }
+        }
+
+        // Uploads left pending by a failed instance, and files whose deletion was claimed but did not finish
+        int abandoned = 0;
+        Bson stale = Filters.and(Filters.exists(STATE), Filters.lt("uploadDate", cutoff));
+        for (Document file : files.find(stale).projection(Projections.include("_id"))) {
+            if (delete(file.getObjectId("_id"))) {
+                abandoned++;
+            }
+        }
+
+        if (removed > 0 || abandoned > 0) {
+            logger.info("GridFS attachment GC removed {} unreferenced files and {} abandoned uploads",
+                    removed, abandoned);
+        }
+    }
+
+    // Takes a reference on the stored file with this content, if there is one
+    private boolean acquire(String checksum) {
+        return files.updateOne(Filters.eq(SHA256, checksum), Updates.inc(REF_COUNT, 1)).getMatchedCount() > 0;
+    }
+
+    private boolean delete(ObjectId fileId) {
+        try {
+            bucket.delete(fileId);
+            return true;
+        } catch (MongoGridFSException e) {
+            logger.warn("Could not delete GridFS file {}: {}", fileId, e.getMessage());
+            return false;
+        }
+    }
+
+    private String checksum(String location) {
+        return location.substring(LOCATION_PREFIX.length());
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class SizeLimitedInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        SizeLimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                advance(n);
+            }
+            return n;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        private void advance(long n) throws IOException {
+            count += n;
+            if (count > limit) {
+                throw new IOException("File exceeds the maximum size of " + limit + " bytes");
+            }
+        }
+    }
+}
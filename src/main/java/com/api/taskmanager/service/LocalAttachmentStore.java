@@ -0,0 +1,257 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.model.AttachmentBlob;
+import com.api.taskmanager.repository.AttachmentBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// Content-addressed store: blobs live at blobs/ab/cd/<sha256> under the upload directory, shared by every
+// attachment with the same content and reference-counted in the attachment_blobs collection
+@Service
+public class LocalAttachmentStore implements AttachmentStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalAttachmentStore.class);
+
+    static final String LOCATION_PREFIX = "blob:";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private AttachmentBlobRepository blobRepository;
+
+    @Value("${attachments.upload-dir:uploads/}")
+    private String uploadDir;
+
+    @Value("${attachments.gc.grace-ms:86400000}")
+    private long gcGraceMs;
+
+    // Serializes acquire and collection of the same blob, so a new upload cannot reuse a file being removed
+    private final Lock[] locks = new Lock[64];
+
+    public LocalAttachmentStore() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public boolean owns(String location) {
+        return location.startsWith(LOCATION_PREFIX);
+    }
+
+    @Override
+    public StoredBlob put(InputStream content, String fileName, long maxSizeBytes) throws IOException {
+        Path tempDirectory = Paths.get(uploadDir, "tmp");
+        Files.createDirectories(tempDirectory);
+        Path temp = Files.createTempFile(tempDirectory, "upload-", ".part");
+
+        try {
+            MessageDigest digest = sha256();
+            long size = copy(content, temp, digest, maxSizeBytes);
+            String checksum = HexFormat.of().formatHex(digest.digest());
+            moveToBlob(temp, checksum, size);
+            return new StoredBlob(LOCATION_PREFIX + checksum, checksum, size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    // Hashes the file in one read pass and renames it into place, so adopting never copies the content. The file
+    // has to be on the same file system as the upload directory, as upload session files are.
+    @Override
+    public StoredBlob adopt(Path file, String fileName, long maxSizeBytes) throws IOException {
+        long size = Files.size(file);
+        if (size > maxSizeBytes) {
+            throw new IOException("File exceeds the maximum size of " + maxSizeBytes + " bytes");
+        }
+
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        String checksum = HexFormat.of().formatHex(digest.digest());
+        moveToBlob(file, checksum, size);
+        return new StoredBlob(LOCATION_PREFIX + checksum, checksum, size);
+    }
+
+    // Locations without the prefix are files written before the store was content-addressed
+    @Override
+    public Path resolve(String location) {
+        if (location.startsWith(LOCATION_PREFIX)) {
+            return blobPath(location.substring(LOCATION_PREFIX.length()));
+        }
+        return Paths.get(location);
+    }
+
+    @Override
+    public InputStream open(String location, long offset) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(location), StandardOpenOption.READ);
+        channel.position(offset);
+        return Channels.newInputStream(channel);
+    }
+
+    @Override
+    public void release(String location) throws IOException {
+        if (location.startsWith(LOCATION_PREFIX)) {
+            blobRepository.release(location.substring(LOCATION_PREFIX.length()));
+        } else {
+            Files.deleteIfExists(Paths.get(location));
+        }
+    }
+
+    // Blobs are kept for a grace period after the last release so a restored task or retried upload can reuse them
+    @Scheduled(fixedDelayString = "${attachments.gc.interval-ms:3600000}",
+            initialDelayString = "${attachments.gc.interval-ms:3600000}")
+    public void collectGarbage() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(gcGraceMs));
+        int removed = 0;
+
+        try (Stream<AttachmentBlob> candidates =
+                     blobRepository.streamByRefCountLessThanEqualAndReleasedAtBefore(0, cutoff)) {
+            for (AttachmentBlob candidate : (Iterable<AttachmentBlob>) candidates::iterator) {
+                if (collect(candidate.getId(), cutoff)) {
+                    removed++;
+                }
+            }
+        }
+
+        int abandoned = removeAbandonedTempFiles(cutoff);
+        if (removed > 0 || abandoned > 0) {
+            logger.info("Attachment GC removed {} unreferenced blobs and {} abandoned temp files", removed, abandoned);
+        }
+    }
+
+    private boolean collect(String checksum, LocalDateTime cutoff) {
+        Lock lock = lockFor(checksum);
+        lock.lock();
+        try {
+            if (blobRepository.removeIfUnreferenced(checksum, cutoff) == null) {
+                return false;
+            }
+            Files.deleteIfExists(blobPath(checksum));
+            return true;
+        } catch (IOException e) {
+            logger.warn("Could not delete blob {}: {}", checksum, e.getMessage());
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int removeAbandonedTempFiles(LocalDateTime cutoff) {
+        Path tempDirectory = Paths.get(uploadDir, "tmp");
+        if (!Files.isDirectory(tempDirectory)) {
+            return 0;
+        }
+
+        FileTime threshold = FileTime.from(cutoff.atZone(ZoneId.systemDefault()).toInstant());
+        int removed = 0;
+        try (Stream<Path> files = Files.list(tempDirectory)) {
+            for (Path file : files.toList()) {
+                if (Files.getLastModifiedTime(file).compareTo(threshold) < 0 && Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not clean temp upload directory: {}", e.getMessage());
+        }
+        return removed;
+    }
+
+    // Moves the file to its blob path, or deletes it when that content is already stored, and takes a reference
+    private void moveToBlob(Path file, String checksum, long size) throws IOException {
+        Path target = blobPath(checksum);
+        Lock lock = lockFor(checksum);
+        lock.lock();
+        try {
+            if (Files.exists(target)) {
+                Files.delete(file);
+            } else {
+                Files.createDirectories(target.getParent());
+                Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            blobRepository.acquire(checksum, size);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Two levels of 256 directories keep each directory small even with millions of blobs
+    private Path blobPath(String checksum) {
+        return Paths.get(uploadDir, "blobs", checksum.substring(0, 2), checksum.substring(2, 4), checksum);
+    }
+
+    private Lock lockFor(String checksum) {
+        return locks[Math.floorMod(checksum.hashCode(), locks.length)];
+    }
+
+    // Copies through one fixed-size buffer, so heap use per upload is constant regardless of the file size
+    private long copy(InputStream content, Path target, MessageDigest digest, long maxSizeBytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long size = 0;
+
+        try (ReadableByteChannel source = Channels.newChannel(content);
+             FileChannel destination = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.array(), 0, buffer.limit());
+                while (buffer.hasRemaining()) {
+                    size += destination.write(buffer);
+                }
+                buffer.clear();
+
+                if (size > maxSizeBytes) {
+                    throw new IOException("File exceeds the maximum size of " + maxSizeBytes + " bytes");
+                }
+            }
+            destination.force(true);
+        }
+        return size;
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.model.Project;
+import com.api.taskmanager.repository.ProjectRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Read-through caches for projects by id and for the ids of the projects each user belongs to.
+// ProjectService invalidates the exact entries a write touches; the TTL bounds staleness from other instances.
+@Component
+public class ProjectCache {
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${projects.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${projects.cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    private Cache<String, Optional<Project>> projects;
+
+    private Cache<String, List<String>> memberships;
+
+    @PostConstruct
+    public void init() {
+        projects = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        memberships = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+
+        // Publishes cache.gets{result=hit|miss}, cache.evictions and cache.size per cache
+        CaffeineCacheMetrics.monitor(meterRegistry, projects, "projects.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, memberships, "projects.byMember");
+    }
+
+    // Missing projects are cached as empty too, so repeated lookups of a bad id do not reach the database
+    public Optional<Project> getProject(String projectId) {
+        return projects.get(projectId, projectRepository::findById);
+    }
+
+    public List<Project> getProjectsByMember(String userId) {
+        List<String> projectIds = memberships.get(userId, id -> projectRepository.findByMembersContaining(id).stream()
+                .map(Project::getId)
+                .toList());
+
+        // Projects not cached yet are loaded together with one $in query
+        Map<String, Optional<Project>> found = projects.getAll(projectIds, this::loadAll);
+        List<Project> result = new ArrayList<>(projectIds.size());
+        for (String projectId : projectIds) {
+            found.getOrDefault(projectId, Optional.empty()).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    public void invalidateProject(String projectId) {
+        projects.invalidate(projectId);
+    }
+
+    public void invalidateMemberships(Collection<String> userIds) {
+        memberships.invalidateAll(userIds);
+    }
+
+    private Map<String, Optional<Project>> loadAll(Set<? extends String> projectIds) {
+        List<String> ids = List.copyOf(projectIds);
+        Map<String, Optional<Project>> loaded = new HashMap<>();
+        ids.forEach(projectId -> loaded.put(projectId, Optional.empty()));
+        projectRepository.findAllById(ids).forEach(project -> loaded.put(project.getId(), Optional.of(project)));
+        return loaded;
+    }
+}
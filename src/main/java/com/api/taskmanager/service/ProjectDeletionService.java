@@ -0,0 +1,164 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.model.Attachment;
+import com.api.taskmanager.model.Project;
+import com.api.taskmanager.model.ProjectDeletion;
+import com.api.taskmanager.model.Task;
+import com.api.taskmanager.repository.CommentRepository;
+import com.api.taskmanager.repository.ProjectDeletionRepository;
+import com.api.taskmanager.repository.ProjectRepository;
+import com.api.taskmanager.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Removes the tasks, comments and attachment references of deleted projects in the background.
+// Deleting a project only records a ProjectDeletion and removes the project document; the tasks are then
+// deleted in batches by task id, with the last id stored after every batch so a restarted or other instance
+// carries on from there once the lease of the previous runner has expired.
+@Service
+public class ProjectDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectDeletionService.class);
+
+    @Autowired
+    private ProjectDeletionRepository projectDeletionRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private AttachmentStorageService attachmentStorageService;
+
+    @Autowired
+    private ProjectStatsService projectStatsService;
+
+    @Autowired
+    private DeadlineScheduler deadlineScheduler;
+
+    @Value("${projects.deletion.batch-size:200}")
+    private int batchSize;
+
+    // Caps the write rate of the cascade so it does not compete with request traffic; 0 disables the cap
+    @Value("${projects.deletion.max-tasks-per-second:500}")
+    private int maxTasksPerSecond;
+
+    @Value("${projects.deletion.lease-ms:300000}")
+    private long leaseMs;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public void requestDeletion(Project project) {
+        LocalDateTime now = LocalDateTime.now();
+        ProjectDeletion deletion = new ProjectDeletion();
+        deletion.setId(project.getId());
+        deletion.setProject(project);
+        deletion.setStatus(ProjectDeletion.DeletionStatus.PENDING);
+        deletion.setRequestedAt(now);
+        deletion.setUpdatedAt(now);
+        projectDeletionRepository.save(deletion);
+    }
+
+    public ProjectDeletion getDeletion(String projectId) {
+        return projectDeletionRepository.findById(projectId)
+                .orElseThrow(() -> new RuntimeException("Project deletion not found"));
+    }
+
+    // Also picks up deletions left pending by a restart or by an instance that went away
+    @Scheduled(fixedDelayString = "${projects.deletion.poll-interval-ms:30000}")
+    public void processPending() {
+        if (running.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void drain() {
+        try {
+            ProjectDeletion deletion;
+            while ((deletion = projectDeletionRepository.claim(owner, leaseUntil())) != null) {
+                cascade(deletion);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.warn("Project deletion stopped, will retry: {}", e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void cascade(ProjectDeletion deletion) throws InterruptedException {
+        String projectId = deletion.getId();
+        String lastTaskId = deletion.getLastTaskId();
+        long minBatchNanos = maxTasksPerSecond > 0 ? TimeUnit.SECONDS.toNanos(batchSize) / maxTasksPerSecond : 0;
+
+        List<Task> batch;
+        while (!(batch = taskRepository.findProjectBatch(projectId, lastTaskId, batchSize)).isEmpty()) {
+            long started = System.nanoTime();
+            List<String> taskIds = batch.stream().map(Task::getId).toList();
+            taskRepository.deleteAllById(taskIds);
+            commentRepository.deleteByTaskIdIn(taskIds);
+            taskIds.forEach(deadlineScheduler::untrack);
+
+            // Released after the tasks are gone: if the instance dies in between, the files are kept
+            // rather than released twice
+            int released = 0;
+            for (Task task : batch) {
+                for (Attachment attachment : task.getAttachments()) {
+                    attachmentStorageService.release(attachment);
+                    released++;
+                }
+            }
+
+            lastTaskId = taskIds.get(taskIds.size() - 1);
+            if (!projectDeletionRepository.recordProgress(
+                    projectId, owner, lastTaskId, taskIds.size(), released, leaseUntil())) {
+                logger.warn("Lost the lease on deletion of project {}, leaving it to its new owner", projectId);
+                return;
+            }
+
+            long remaining = minBatchNanos - (System.nanoTime() - started);
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            }
+        }
+
+        // Repeated here in case the instance stopped between recording the deletion and removing the project
+        projectRepository.deleteById(projectId);
+        projectStatsService.deleteStats(projectId);
+        if (projectDeletionRepository.complete(projectId, owner)) {
+            logger.info("Deleted project {} and its tasks", projectId);
+        }
+    }
+
+    private LocalDateTime leaseUntil() {
+        return LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(leaseMs));
+    }
+}
@@ -0,0 +1,206 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.model.Project;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// In-memory index of the projects each user belongs to, used to scope task listings without reading projects.
+// Project ids are numbered once and each user maps to a sorted int[] of those numbers, so the index stays small
+// with many users. ProjectService applies membership changes as they happen; the periodic rebuild picks up
+// changes made on other instances and drops the numbers of deleted projects.
+@Component
+public class ProjectMembershipIndex {
+
+    private static final int[] NO_PROJECTS = new int[0];
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private volatile Snapshot snapshot = new Snapshot();
+
+    // Changes applied while a rebuild is reading projects, replayed onto the new snapshot before it is swapped in
+    private List<Change> pendingChanges;
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${projects.membership-index.rebuild-interval-ms:300000}",
+            initialDelayString = "${projects.membership-index.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+
+        Snapshot rebuilt = new Snapshot();
+        Query query = new Query();
+        query.fields().include("members", "version");
+        try (Stream<Project> projects = mongoTemplate.stream(query, Project.class)) {
+            projects.forEach(project -> rebuilt.load(project.getId(), project.getMembers(), project.getVersion()));
+        }
+
+        synchronized (this) {
+            for (Change change : pendingChanges) {
+                change.applyTo(rebuilt);
+            }
+            pendingChanges = null;
+            snapshot = rebuilt;
+        }
+    }
+
+    public List<String> getProjectIds(String userId) {
+        return snapshot.projectIds(userId);
+    }
+
+    public synchronized void addMembers(String projectId, Collection<String> userIds) {
+        apply(new Change(projectId, List.copyOf(userIds), true, null));
+    }
+
+    public synchronized void removeMembers(String projectId, Collection<String> userIds) {
+        apply(new Change(projectId, List.copyOf(userIds), false, null));
+    }
+
+    // Sets one user's membership as of the project version the write returned. Concurrent add and remove calls
+    // can reach the index in either order, so a change older than what the index already holds is ignored.
+    public synchronized void updateMember(String projectId, String userId, boolean member, long version) {
+        apply(new Change(projectId, List.of(userId), member, version));
+    }
+
+    private void apply(Change change) {
+        change.applyTo(snapshot);
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    // A null version applies unconditionally
+    private record Change(String projectId, List<String> userIds, boolean added, Long version) {
+        void applyTo(Snapshot target) {
+            if (version != null && !target.isNewer(projectId, userIds.get(0), version)) {
+                return;
+            }
+            if (added) {
+                target.add(projectId, userIds);
+            } else {
+                target.remove(projectId, userIds);
+            }
+        }
+    }
+
+    // Writes happen under the index lock; reads are lock-free because every int[] is replaced, never modified,
+    // and publishing it through the concurrent map makes the project id array writes before it visible
+    static final class Snapshot {
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        // Project version each project was read at, and the version of the last change applied per member
+        private final Map<String, Long> loadedVersions = new HashMap<>();
+        private final Map<String, Long> memberVersions = new HashMap<>();
+        private final Map<String, int[]> projectsByUser = new ConcurrentHashMap<>();
+        private volatile String[] projectIds = new String[64];
+        private int projectCount;
+
+        List<String> projectIds(String userId) {
+            int[] projects = projectsByUser.getOrDefault(userId, NO_PROJECTS);
+            String[] ids = projectIds;
+            List<String> result = new ArrayList<>(projects.length);
+            for (int ordinal : projects) {
+                result.add(ids[ordinal]);
+            }
+            return result;
+        }
+
+        void load(String projectId, Collection<String> userIds, Long version) {
+            add(projectId, userIds);
+            if (version != null) {
+                loadedVersions.put(projectId, version);
+            }
+        }
+
+        // Records the version when it is newer than the project as loaded and the member's last applied change
+        boolean isNewer(String projectId, String userId, long version) {
+            if (version <= loadedVersions.getOrDefault(projectId, -1L)) {
+                return false;
+            }
+            String key = projectId + "/" + userId;
+            Long applied = memberVersions.get(key);
+            if (applied != null && version <= applied) {
+                return false;
+            }
+            memberVersions.put(key, version);
+            return true;
+        }
+
+        void add(String projectId, Collection<String> userIds) {
+            if (userIds == null || userIds.isEmpty()) {
+                return;
+            }
+            int ordinal = ordinalOf(projectId);
+            for (String userId : userIds) {
+                int[] projects = projectsByUser.getOrDefault(userId, NO_PROJECTS);
+                int position = Arrays.binarySearch(projects, ordinal);
+                if (position >= 0) {
+                    continue;
+                }
+
+                int insertAt = -position - 1;
+                int[] updated = new int[projects.length + 1];
+                System.arraycopy(projects, 0, updated, 0, insertAt);
+                updated[insertAt] = ordinal;
+                System.arraycopy(projects, insertAt, updated, insertAt + 1, projects.length - insertAt);
+                projectsByUser.put(userId, updated);
+            }
+        }
+
+        void remove(String projectId, Collection<String> userIds) {
+            Integer ordinal = ordinals.get(projectId);
+            if (ordinal == null || userIds == null) {
+                return;
+            }
+            for (String userId : userIds) {
+                int[] projects = projectsByUser.getOrDefault(userId, NO_PROJECTS);
+                int position = Arrays.binarySearch(projects, ordinal);
+                if (position < 0) {
+                    continue;
+                }
+
+                if (projects.length == 1) {
+                    projectsByUser.remove(userId);
+                    continue;
+                }
+                int[] updated = new int[projects.length - 1];
+                System.arraycopy(projects, 0, updated, 0, position);
+                System.arraycopy(projects, position + 1, updated, position, projects.length - position - 1);
+                projectsByUser.put(userId, updated);
+            }
+        }
+
+        private int ordinalOf(String projectId) {
+            Integer existing = ordinals.get(projectId);
+            if (existing != null) {
+                return existing;
+            }
+
+            String[] ids = projectIds;
+            if (projectCount == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[projectCount] = projectId;
+            projectIds = ids;
+            ordinals.put(projectId, projectCount);
+            return projectCount++;
+        }
+    }
+}
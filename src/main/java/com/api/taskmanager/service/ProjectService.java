@@ -1,9 +1,15 @@
 package com.api.taskmanager.service;
 
+import com.api.taskmanager.config.PaginationProperties;
+import com.api.taskmanager.dto.CursorPage;
+import com.api.taskmanager.exception.PreconditionFailedException;
 import com.api.taskmanager.model.Project;
+import com.api.taskmanager.model.ProjectDeletion;
 import com.api.taskmanager.repository.ProjectRepository;
 import com.api.taskmanager.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -18,6 +24,21 @@ public class ProjectService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private ProjectStatsService projectStatsService;
+
+    @Autowired
+    private ProjectCache projectCache;
+
+    @Autowired
+    private ProjectMembershipIndex projectMembershipIndex;
+
+    @Autowired
+    private ProjectDeletionService projectDeletionService;
+
     public Project createProject(Project project, String createdBy) {
         project.setCreatedBy(createdBy);
         project.setCreatedAt(LocalDateTime.now());
@@ -28,12 +49,23 @@ public class ProjectService {
             project.getMembers().add(createdBy);
         }
 
-        return projectRepository.save(project);
+        Project created = projectRepository.save(project);
+        projectCache.invalidateMemberships(created.getMembers());
+        projectMembershipIndex.addMembers(created.getId(), created.getMembers());
+        return created;
     }
 
     public Project updateProject(String projectId, Project updatedProject) {
+        return updateProject(projectId, updatedProject, null);
+    }
+
+    // save() re-checks the version it read, so a write racing with this one fails instead of being overwritten
+    public Project updateProject(String projectId, Project updatedProject, Long expectedVersion) {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
+        if (expectedVersion != null && !expectedVersion.equals(project.getVersion())) {
+            throw new PreconditionFailedException("Project was modified by another request");
+        }
 
         if (updatedProject.getName() != null) {
             project.setName(updatedProject.getName());
@@ -43,15 +75,34 @@ public class ProjectService {
         }
 
         project.setUpdatedAt(LocalDateTime.now());
-        return projectRepository.save(project);
+        Project saved = projectRepository.save(project);
+        projectCache.invalidateProject(projectId);
+        return saved;
     }
 
+    // The project disappears right away; its tasks and their attachments are removed by ProjectDeletionService
     public void deleteProject(String projectId) {
+        Project project = projectRepository.findById(projectId).orElse(null);
+        if (project == null) {
+            return;
+        }
+
+        projectDeletionService.requestDeletion(project);
         projectRepository.deleteById(projectId);
+        projectStatsService.deleteStats(projectId);
+
+        projectCache.invalidateProject(projectId);
+        projectCache.invalidateMemberships(project.getMembers());
+        projectMembershipIndex.removeMembers(projectId, project.getMembers());
+        projectDeletionService.processPending();
+    }
+
+    public ProjectDeletion getDeletion(String projectId) {
+        return projectDeletionService.getDeletion(projectId);
     }
 
     public Project getProjectById(String projectId) {
-        return projectRepository.findById(projectId)
+        return projectCache.getProject(projectId)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
     }
 
@@ -63,33 +114,57 @@ public class ProjectService {
         return projectRepository.findByCreatedBy(userId);
     }
 
+    public CursorPage<Project> getAllProjects(String cursor, Integer size) {
+        return findPage(new Criteria(), cursor, size);
+    }
+
+    public CursorPage<Project> getProjectsByCreator(String userId, String cursor, Integer size) {
+        return findPage(Criteria.where("createdBy").is(userId), cursor, size);
+    }
+
+    private CursorPage<Project> findPage(Criteria criteria, String cursor, Integer size) {
+        int limit = paginationProperties.resolvePageSize(size);
+        List<Project> projects = projectRepository.findPage(criteria, CursorPage.decodeCursor(cursor), limit);
+        return CursorPage.of(projects, limit, Project::getId);
+    }
+
     public List<Project> getProjectsByMember(String userId) {
-        return projectRepository.findByMembersContaining(userId);
+        return projectCache.getProjectsByMember(userId);
     }
 
+    // $addToSet and $pull change the member list in place, so no read is needed and concurrent membership
+    // changes cannot overwrite each other
     public Project addMember(String projectId, String userId) {
-        Project project = getProjectById(projectId);
-
         // Verify user exists
-        userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (!project.getMembers().contains(userId)) {
-            project.getMembers().add(userId);
-            project.setUpdatedAt(LocalDateTime.now());
-            return projectRepository.save(project);
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
         }
 
-        return project;
+        Update update = new Update()
+                .addToSet("members", userId)
+                .set("updatedAt", LocalDateTime.now());
+        return changeMembership(projectId, userId, update);
     }
 
     public Project removeMember(String projectId, String userId) {
-        Project project = getProjectById(projectId);
+        Update update = new Update()
+                .pull("members", userId)
+                .set("updatedAt", LocalDateTime.now());
+        return changeMembership(projectId, userId, update);
+    }
 
-        project.getMembers().remove(userId);
-        project.setUpdatedAt(LocalDateTime.now());
+    private Project changeMembership(String projectId, String userId, Update update) {
+        Project project = projectRepository.findAndModify(projectId, update);
+        if (project == null) {
+            throw new RuntimeException("Project not found");
+        }
 
-        return projectRepository.save(project);
+        projectCache.invalidateProject(projectId);
+        projectCache.invalidateMemberships(List.of(userId));
+        // The returned document is the state after this write, so the index follows the database's order
+        projectMembershipIndex.updateMember(projectId, userId, project.getMembers().contains(userId),
+                project.getVersion());
+        return project;
     }
 }
 
@@ -0,0 +1,118 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.model.ProjectStats;
+import com.api.taskmanager.model.Task;
+import com.api.taskmanager.repository.ProjectRepository;
+import com.api.taskmanager.repository.ProjectStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Keeps per-project task counters in project_stats. Every task write moves its contribution from the old
+// image to the new one with $inc, so reading a project's stats is a single document lookup plus an indexed
+// count of its overdue tasks.
+@Service
+public class ProjectStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectStatsService.class);
+
+    private static final String UNASSIGNED = "unassigned";
+
+    private static final List<String> COUNTED_FIELDS = List.of("projectId", "status", "priority", "assignedTo");
+
+    @Autowired
+    private ProjectStatsRepository projectStatsRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    public ProjectStats getStats(String projectId) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new RuntimeException("Project not found");
+        }
+        ProjectStats stats = projectStatsRepository.findById(projectId).orElseGet(() -> {
+            ProjectStats empty = new ProjectStats();
+            empty.setId(projectId);
+            return empty;
+        });
+        stats.setOverdue(projectStatsRepository.countOverdue(projectId, LocalDateTime.now()));
+        return stats;
+    }
+
+    public boolean affects(Update update) {
+        return COUNTED_FIELDS.stream().anyMatch(update::modifies);
+    }
+
+    // before is null for a created task, after is null for a deleted one
+    public void recordChange(Task before, Task after) {
+        Map<String, Map<String, Long>> deltas = new HashMap<>();
+        contribute(deltas, before, -1);
+        contribute(deltas, after, 1);
+
+        deltas.forEach((projectId, projectDeltas) -> {
+            projectDeltas.values().removeIf(delta -> delta == 0);
+            if (projectDeltas.isEmpty()) {
+                return;
+            }
+            try {
+                projectStatsRepository.increment(projectId, projectDeltas);
+            } catch (RuntimeException e) {
+                // The task write already happened; the next reconciliation corrects the counters
+                logger.warn("Could not update stats of project {}: {}", projectId, e.getMessage());
+            }
+        });
+    }
+
+    public void deleteStats(String projectId) {
+        projectStatsRepository.deleteById(projectId);
+    }
+
+    // Rebuilds the counters from the tasks themselves, correcting drift from failed increments. A project whose
+    // counters were incremented during the scan is left alone, since the scan may or may not have seen that write;
+    // the next run picks it up.
+    @Scheduled(fixedDelayString = "${projects.stats.reconcile-interval-ms:3600000}",
+            initialDelayString = "${projects.stats.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Long> versions = projectStatsRepository.findVersions();
+        Map<String, ProjectStats> stats = projectStatsRepository.aggregateFromTasks();
+
+        int skipped = 0;
+        for (ProjectStats projectStats : stats.values()) {
+            projectStats.setUpdatedAt(now);
+            projectStats.setReconciledAt(now);
+            if (!projectStatsRepository.replaceIfUnchanged(projectStats, versions.get(projectStats.getId()))) {
+                skipped++;
+            }
+        }
+        for (Map.Entry<String, Long> entry : versions.entrySet()) {
+            if (!stats.containsKey(entry.getKey())) {
+                projectStatsRepository.deleteIfUnchanged(entry.getKey(), entry.getValue());
+            }
+        }
+        logger.info("Reconciled task stats of {} projects, {} changed during the scan",
+                stats.size() - skipped, skipped);
+    }
+
+    private void contribute(Map<String, Map<String, Long>> deltas, Task task, long sign) {
+        if (task == null || task.getProjectId() == null) {
+            return;
+        }
+
+        Map<String, Long> projectDeltas = deltas.computeIfAbsent(task.getProjectId(), id -> new HashMap<>());
+        projectDeltas.merge("total", sign, Long::sum);
+        projectDeltas.merge("byStatus." + task.getStatus(), sign, Long::sum);
+        projectDeltas.merge("byPriority." + task.getPriority(), sign, Long::sum);
+        projectDeltas.merge("byAssignee." + Objects.requireNonNullElse(task.getAssignedTo(), UNASSIGNED),
+                sign, Long::sum);
+    }
+}
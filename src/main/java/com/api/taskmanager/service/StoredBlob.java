@@ -0,0 +1,13 @@
+package com.api.taskmanager.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StoredBlob {
+    // Opaque store location, saved as Attachment.fileUrl
+    private String location;
+    private String checksum;
+    private long size;
+}
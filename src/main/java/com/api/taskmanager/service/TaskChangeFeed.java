@@ -0,0 +1,295 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.dto.TaskChangeEvent;
+import com.api.taskmanager.dto.TaskView;
+import com.api.taskmanager.exception.ServiceOverloadedException;
+import com.api.taskmanager.model.Task;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Watches the tasks collection with one change stream per instance and fans each change out to the
+// subscribers of the task's project. The most recent events are kept in a ring buffer so a reconnecting
+// subscriber can be replayed what it missed. Change streams need a replica set; a single-node one is enough.
+@Component
+public class TaskChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskChangeFeed.class);
+
+    // Returned by servers that are not part of a replica set
+    private static final int CHANGE_STREAMS_UNSUPPORTED = 40573;
+
+    // The resume token is no longer in the oplog
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private static final Pattern ATTACHMENT_ADDED_FIELD = Pattern.compile("attachments(\\.\\d+)?");
+
+    private static final List<String> TASK_FIELDS = List.of(
+            "_id", "title", "status", "priority", "dueDate", "assignedTo", "projectId");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${tasks.events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${tasks.events.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    @Value("${tasks.events.replay-size:1024}")
+    private int replaySize;
+
+    @Value("${tasks.events.retry-ms:5000}")
+    private long retryMs;
+
+    private final Map<String, Set<TaskChangeSubscription>> subscriptions = new ConcurrentHashMap<>();
+
+    // Guarded by itself; publishing and subscribing both hold it so replay and live events never overlap or gap
+    private final Deque<TaskChangeEvent> recent = new ArrayDeque<>();
+
+    private volatile boolean available;
+
+    private volatile boolean running;
+
+    private Thread consumer;
+
+    private BsonDocument resumeToken;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        available = true;
+        consumer = Thread.ofPlatform().name("task-change-feed").daemon().start(this::consume);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (consumer != null) {
+            consumer.interrupt();
+        }
+    }
+
+    // The subscription receives nothing until start(), so the caller can finish wiring up onSignal first.
+    // Starting replays events after lastEventId when it is still buffered, or a RESET event when it is not.
+    public TaskChangeSubscription subscribe(String projectId, String lastEventId, Runnable onSignal) {
+        if (!available) {
+            throw new ServiceOverloadedException("Task change feed is not available",
+                    TimeUnit.MILLISECONDS.toSeconds(retryMs));
+        }
+        return new TaskChangeSubscription(projectId, subscriberBuffer, onSignal,
+                subscription -> register(subscription, lastEventId), this::unsubscribe);
+    }
+
+    private void register(TaskChangeSubscription subscription, String lastEventId) {
+        Set<TaskChangeSubscription> projectSubscriptions =
+                subscriptions.computeIfAbsent(subscription.getProjectId(), id -> new CopyOnWriteArraySet<>());
+        synchronized (recent) {
+            if (lastEventId != null) {
+                replay(subscription, lastEventId);
+            }
+            projectSubscriptions.add(subscription);
+        }
+    }
+
+    private void replay(TaskChangeSubscription subscription, String lastEventId) {
+        boolean found = false;
+        for (TaskChangeEvent event : recent) {
+            if (found && event.getProjectId().equals(subscription.getProjectId())) {
+                subscription.offer(event);
+            } else if (event.getId().equals(lastEventId)) {
+                found = true;
+            }
+        }
+        if (!found) {
+            subscription.offer(reset(subscription.getProjectId()));
+        }
+    }
+
+    private void unsubscribe(TaskChangeSubscription subscription) {
+        subscriptions.computeIfPresent(subscription.getProjectId(), (id, projectSubscriptions) -> {
+            projectSubscriptions.remove(subscription);
+            return projectSubscriptions.isEmpty() ? null : projectSubscriptions;
+        });
+    }
+
+    private void consume() {
+        while (running) {
+            try {
+                watch();
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAMS_UNSUPPORTED) {
+                    logger.warn("Task change feed disabled: change streams need MongoDB to run as a replica set");
+                    available = false;
+                    return;
+                }
+                if (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    logger.warn("Task change feed fell too far behind the oplog, restarting from now");
+                    resumeToken = null;
+                    broadcastReset();
+                } else {
+                    logger.warn("Task change feed interrupted, resuming: {}", e.getMessage());
+                }
+            } catch (MongoException e) {
+                logger.warn("Task change feed interrupted, resuming: {}", e.getMessage());
+            }
+
+            if (running) {
+                try {
+                    Thread.sleep(retryMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void watch() {
+        // The full document is looked up for updates, but only the summary fields travel back
+        List<String> projected = new ArrayList<>(List.of("operationType", "documentKey", "updateDescription"));
+        TASK_FIELDS.forEach(field -> projected.add("fullDocument." + field));
+        List<Bson> pipeline = List.of(
+                Aggregates.match(Filters.in("operationType", "insert", "update", "replace")),
+                Aggregates.project(Projections.include(projected)));
+
+        ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Task.class))
+                .watch(pipeline)
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null) {
+                    publish(change);
+                }
+                resumeToken = cursor.getResumeToken();
+            }
+        }
+    }
+
+    private void publish(ChangeStreamDocument<Document> change) {
+        Document fullDocument = change.getFullDocument();
+        // Without a full document the task was deleted before the lookup ran
+        if (fullDocument == null || fullDocument.getString("projectId") == null) {
+            return;
+        }
+
+        Task task = mongoTemplate.getConverter().read(Task.class, fullDocument);
+        TaskChangeEvent event = new TaskChangeEvent(
+                change.getResumeToken().getString("_data").getValue(),
+                classify(change),
+                task.getProjectId(),
+                task.getId(),
+                TaskView.summaryOf(task),
+                LocalDateTime.now());
+
+        synchronized (recent) {
+            recent.addLast(event);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            deliver(event);
+        }
+    }
+
+    // Deadlines pass without a write, so DeadlineScheduler's events are forwarded to live subscribers here
+    @EventListener
+    public void onDeadline(TaskDeadlineEvent deadline) {
+        TaskView task = deadline.task();
+        if (task.getProjectId() == null) {
+            return;
+        }
+        TaskChangeEvent.Type type = deadline.type() == TaskDeadlineEvent.Type.DUE_SOON
+                ? TaskChangeEvent.Type.DUE_SOON
+                : TaskChangeEvent.Type.OVERDUE;
+        TaskChangeEvent event = new TaskChangeEvent(null, type, task.getProjectId(), task.getId(), task,
+                LocalDateTime.now());
+        synchronized (recent) {
+            deliver(event);
+        }
+    }
+
+    private TaskChangeEvent.Type classify(ChangeStreamDocument<Document> change) {
+        if (change.getOperationType() == OperationType.INSERT) {
+            return TaskChangeEvent.Type.CREATED;
+        }
+
+        UpdateDescription description = change.getUpdateDescription();
+        if (description != null && description.getUpdatedFields() != null) {
+            for (String field : description.getUpdatedFields().keySet()) {
+                if (field.equals("commentCount")) {
+                    return TaskChangeEvent.Type.COMMENT_ADDED;
+                }
+                // Only the array or a new element; attachments.<n>.fileUrl and the like are edits of existing ones
+                if (ATTACHMENT_ADDED_FIELD.matcher(field).matches()) {
+                    return TaskChangeEvent.Type.ATTACHMENT_ADDED;
+                }
+            }
+        }
+        return TaskChangeEvent.Type.UPDATED;
+    }
+
+    private void deliver(TaskChangeEvent event) {
+        Set<TaskChangeSubscription> projectSubscriptions = subscriptions.get(event.getProjectId());
+        if (projectSubscriptions == null) {
+            return;
+        }
+        for (TaskChangeSubscription subscription : projectSubscriptions) {
+            if (!subscription.offer(event)) {
+                // Slow or closed subscribers are dropped rather than slowing down everyone else
+                unsubscribe(subscription);
+            }
+        }
+    }
+
+    private void broadcastReset() {
+        synchronized (recent) {
+            recent.clear();
+            subscriptions.forEach((projectId, projectSubscriptions) ->
+                    projectSubscriptions.forEach(subscription -> subscription.offer(reset(projectId))));
+        }
+    }
+
+    private TaskChangeEvent reset(String projectId) {
+        return new TaskChangeEvent(null, TaskChangeEvent.Type.RESET, projectId, null, null, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,94 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.dto.TaskChangeEvent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// A subscriber's bounded buffer of task changes for one project. The feed never waits on a subscriber: if the
+// buffer is full the subscription is marked overflowed and receives nothing more, and the client is expected
+// to reconnect with the id of the last event it handled.
+public class TaskChangeSubscription implements AutoCloseable {
+
+    private final String projectId;
+
+    private final BlockingQueue<TaskChangeEvent> buffer;
+
+    // Told whenever an event is buffered or the subscription overflows; must not block
+    private final Runnable onSignal;
+
+    private final Consumer<TaskChangeSubscription> onStart;
+
+    private final Consumer<TaskChangeSubscription> onClose;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private volatile boolean overflowed;
+
+    private volatile boolean closed;
+
+    TaskChangeSubscription(String projectId, int capacity, Runnable onSignal,
+                           Consumer<TaskChangeSubscription> onStart, Consumer<TaskChangeSubscription> onClose) {
+        this.projectId = projectId;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.onSignal = onSignal;
+        this.onStart = onStart;
+        this.onClose = onClose;
+    }
+
+    // Replays and then delivers live events; onSignal may run on the calling thread before this returns
+    public TaskChangeSubscription start() {
+        if (!closed && started.compareAndSet(false, true)) {
+            onStart.accept(this);
+        }
+        return this;
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public TaskChangeEvent poll() {
+        return buffer.poll();
+    }
+
+    public TaskChangeEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return buffer.poll(timeout, unit);
+    }
+
+    public boolean hasPending() {
+        return overflowed || !buffer.isEmpty();
+    }
+
+    public boolean isOverflowed() {
+        return overflowed;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            onClose.accept(this);
+        }
+    }
+
+    // Returns false once the subscription should be dropped
+    boolean offer(TaskChangeEvent event) {
+        if (closed || overflowed) {
+            return false;
+        }
+        if (!buffer.offer(event)) {
+            overflowed = true;
+            buffer.clear();
+        }
+        onSignal.run();
+        return !overflowed;
+    }
+}
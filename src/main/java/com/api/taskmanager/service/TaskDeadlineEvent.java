@@ -0,0 +1,11 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.dto.TaskView;
+
+// Published by DeadlineScheduler when an open task's due date comes within the due-soon window or passes
+public record TaskDeadlineEvent(Type type, TaskView task) {
+
+    public enum Type {
+        DUE_SOON, OVERDUE
+    }
+}
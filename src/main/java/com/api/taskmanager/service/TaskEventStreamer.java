@@ -0,0 +1,113 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.dto.TaskChangeEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Serves TaskChangeFeed subscriptions as Server-Sent Events. Writes happen on a sender thread per stream, never
+// on the change-stream consumer, so a slow client only fills its own buffer and is then disconnected.
+@Component
+public class TaskEventStreamer {
+
+    @Autowired
+    private TaskChangeFeed taskChangeFeed;
+
+    // Explicit, so streams do not inherit spring.mvc.async.request-timeout; clients reconnect with Last-Event-ID
+    @Value("${tasks.events.stream-timeout-ms:3600000}")
+    private long streamTimeoutMs;
+
+    // Virtual threads, so a write blocked on a slow client parks cheaply instead of holding a pool thread
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Set<EventStream> streams = ConcurrentHashMap.newKeySet();
+
+    public SseEmitter open(String projectId, String lastEventId) {
+        EventStream stream = new EventStream();
+        stream.subscription = taskChangeFeed.subscribe(projectId, lastEventId, stream::schedule);
+        stream.emitter.onCompletion(stream::close);
+        stream.emitter.onTimeout(stream::close);
+        stream.emitter.onError(e -> stream.close());
+        streams.add(stream);
+
+        // Only now can a replayed or live event reach the stream and schedule a drain
+        stream.subscription.start();
+        return stream.emitter;
+    }
+
+    // Keeps proxies from closing idle streams and finds clients that went away
+    @Scheduled(fixedDelayString = "${tasks.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (EventStream stream : streams) {
+            stream.heartbeatDue = true;
+            stream.schedule();
+        }
+    }
+
+    private final class EventStream {
+        private final SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private TaskChangeSubscription subscription;
+        private volatile boolean heartbeatDue;
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (subscription.isOverflowed() || subscription.isClosed()) {
+                    // The client reconnects with Last-Event-ID and is replayed what it missed
+                    close();
+                    emitter.complete();
+                    return;
+                }
+
+                TaskChangeEvent event;
+                while ((event = subscription.poll()) != null) {
+                    SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                            .name(event.getType().name())
+                            .data(event);
+                    if (event.getId() != null) {
+                        builder.id(event.getId());
+                    }
+                    emitter.send(builder);
+                }
+                if (heartbeatDue) {
+                    heartbeatDue = false;
+                    emitter.send(SseEmitter.event().comment("keepalive"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            } catch (RuntimeException e) {
+                close();
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+
+            // An event may have arrived after the last poll but before the flag was cleared
+            if (subscription.hasPending()) {
+                schedule();
+            }
+        }
+
+        void close() {
+            streams.remove(this);
+            subscription.close();
+        }
+    }
+}
@@ -1,17 +1,45 @@
 package com.api.taskmanager.service;
 
+import com.api.taskmanager.config.PaginationProperties;
+import com.api.taskmanager.dto.BulkTaskOperation;
+import com.api.taskmanager.dto.BulkTaskRequest;
+import com.api.taskmanager.dto.BulkTaskResponse;
+import com.api.taskmanager.dto.BulkTaskResult;
+import com.api.taskmanager.dto.CursorPage;
+import com.api.taskmanager.dto.TaskRequest;
+import com.api.taskmanager.dto.TaskView;
+import com.api.taskmanager.exception.PreconditionFailedException;
 import com.api.taskmanager.model.Attachment;
 import com.api.taskmanager.model.Comment;
 import com.api.taskmanager.model.Task;
 import com.api.taskmanager.model.User;
+import com.api.taskmanager.repository.CommentRepository;
 import com.api.taskmanager.repository.TaskRepository;
 import com.api.taskmanager.repository.UserRepository;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
@@ -22,7 +50,39 @@ public class TaskService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private AttachmentStorageService attachmentStorageService;
+
+    @Autowired
+    private ProjectStatsService projectStatsService;
+
+    @Autowired
+    private ProjectMembershipIndex projectMembershipIndex;
+
+    @Autowired
+    private DeadlineScheduler deadlineScheduler;
+
+    @Value("${tasks.comments.recent-limit:5}")
+    private int recentCommentLimit;
+
+    @Value("${tasks.bulk.max-operations:1000}")
+    private int bulkMaxOperations;
+
     public Task createTask(Task task, String createdBy) {
+        prepareNewTask(task, createdBy);
+        Task created = taskRepository.save(task);
+        projectStatsService.recordChange(null, created);
+        deadlineScheduler.track(created);
+        return created;
+    }
+
+    private void prepareNewTask(Task task, String createdBy) {
         task.setCreatedBy(createdBy);
         task.setCreatedAt(LocalDateTime.now());
         task.setUpdatedAt(LocalDateTime.now());
@@ -33,45 +93,61 @@ public class TaskService {
         if (task.getPriority() == null) {
             task.setPriority(Task.TaskPriority.MEDIUM);
         }
-
-        return taskRepository.save(task);
     }
 
     public Task updateTask(String taskId, Task updatedTask) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+        return updateTask(taskId, updatedTask, null);
+    }
+
+    // With an expected version the update only applies if nobody changed the task since that version was read
+    public Task updateTask(String taskId, Task updatedTask, Long expectedVersion) {
+        return modifyTask(taskId, expectedVersion, buildUpdate(updatedTask));
+    }
+
+    private Update buildUpdate(Task updatedTask) {
+        Update update = new Update();
 
         if (updatedTask.getTitle() != null) {
-            task.setTitle(updatedTask.getTitle());
+            update.set("title", updatedTask.getTitle());
         }
         if (updatedTask.getDescription() != null) {
-            task.setDescription(updatedTask.getDescription());
+            update.set("description", updatedTask.getDescription());
         }
         if (updatedTask.getDueDate() != null) {
-            task.setDueDate(updatedTask.getDueDate());
+            update.set("dueDate", updatedTask.getDueDate());
         }
         if (updatedTask.getStatus() != null) {
-            task.setStatus(updatedTask.getStatus());
+            update.set("status", updatedTask.getStatus());
             if (updatedTask.getStatus() == Task.TaskStatus.COMPLETED) {
-                task.setCompletedAt(LocalDateTime.now());
+                update.set("completedAt", LocalDateTime.now());
             }
         }
         if (updatedTask.getPriority() != null) {
-            task.setPriority(updatedTask.getPriority());
+            update.set("priority", updatedTask.getPriority());
         }
         if (updatedTask.getAssignedTo() != null) {
-            task.setAssignedTo(updatedTask.getAssignedTo());
+            update.set("assignedTo", updatedTask.getAssignedTo());
         }
         if (updatedTask.getProjectId() != null) {
-            task.setProjectId(updatedTask.getProjectId());
+            update.set("projectId", updatedTask.getProjectId());
         }
 
-        task.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(task);
+        update.set("updatedAt", LocalDateTime.now());
+        return update;
     }
 
+    // Only the delete that actually removed the document releases its attachments and moves the counters;
+    // the removed image also holds any attachment added right before the delete
     public void deleteTask(String taskId) {
-        taskRepository.deleteById(taskId);
+        Task task = taskRepository.findAndRemove(taskId);
+        commentRepository.deleteByTaskId(taskId);
+        if (task == null) {
+            return;
+        }
+
+        deadlineScheduler.untrack(taskId);
+        projectStatsService.recordChange(task, null);
+        task.getAttachments().forEach(attachmentStorageService::release);
     }
 
     public Task getTaskById(String taskId) {
@@ -103,59 +179,437 @@ public class TaskService {
         return taskRepository.findByAssignedToAndStatus(userId, status);
     }
 
+    public List<TaskView> getOverdueTasks(String projectId, Integer size) {
+        return deadlineScheduler.getOverdue(projectId, paginationProperties.resolvePageSize(size));
+    }
+
+    public List<Task> getTasksVisibleTo(String userId) {
+        try (Stream<Task> tasks = taskRepository.stream(visibleTo(userId))) {
+            return tasks.toList();
+        }
+    }
+
     public List<Task> searchTasks(String keyword) {
-        return taskRepository.searchByTitleOrDescription(keyword);
+        return taskRepository.search(keyword, 0, 0);
     }
 
-    public Task assignTask(String taskId, String userId) {
-        Task task = getTaskById(taskId);
+    public CursorPage<TaskView> getAllTasks(String cursor, Integer size, String fields) {
+        return findPage(new Criteria(), cursor, size, fields);
+    }
+
+    public CursorPage<TaskView> getTasksVisibleTo(String userId, String cursor, Integer size, String fields) {
+        return findPage(visibleTo(userId), cursor, size, fields);
+    }
 
+    public CursorPage<TaskView> getTasksByAssignedUser(String userId, String cursor, Integer size, String fields) {
+        return findPage(Criteria.where("assignedTo").is(userId), cursor, size, fields);
+    }
+
+    public CursorPage<TaskView> getTasksByCreator(String userId, String cursor, Integer size, String fields) {
+        return findPage(Criteria.where("createdBy").is(userId), cursor, size, fields);
+    }
+
+    public CursorPage<TaskView> getTasksByProject(String projectId, String cursor, Integer size, String fields) {
+        return findPage(Criteria.where("projectId").is(projectId), cursor, size, fields);
+    }
+
+    public CursorPage<TaskView> getTasksByStatus(Task.TaskStatus status, String cursor, Integer size, String fields) {
+        return findPage(Criteria.where("status").is(status), cursor, size, fields);
+    }
+
+    public CursorPage<TaskView> getTasksByAssignedUserAndStatus(String userId, Task.TaskStatus status,
+                                                                String cursor, Integer size, String fields) {
+        return findPage(Criteria.where("assignedTo").is(userId).and("status").is(status), cursor, size, fields);
+    }
+
+    public CursorPage<Task> searchTasks(String keyword, String cursor, Integer size) {
+        int limit = paginationProperties.resolvePageSize(size);
+        int offset = CursorPage.decodeOffset(cursor);
+        List<Task> tasks = taskRepository.search(keyword, offset, limit + 1);
+        return CursorPage.ofOffset(tasks, limit, offset);
+    }
+
+    // Callers must close the returned stream to release the server-side cursor
+    public Stream<Task> streamTasksByProject(String projectId) {
+        return taskRepository.stream(Criteria.where("projectId").is(projectId));
+    }
+
+    public Stream<Task> streamTasksByStatus(Task.TaskStatus status) {
+        return taskRepository.stream(Criteria.where("status").is(status));
+    }
+
+    // Tasks in the user's projects or assigned to them. Both branches of the $or are served by the
+    // projectId_id and assignedTo_id indexes, merged in _id order, so no task is checked one by one.
+    private Criteria visibleTo(String userId) {
+        List<String> projectIds = projectMembershipIndex.getProjectIds(userId);
+        if (projectIds.isEmpty()) {
+            return Criteria.where("assignedTo").is(userId);
+        }
+        return new Criteria().orOperator(
+                Criteria.where("projectId").in(projectIds),
+                Criteria.where("assignedTo").is(userId));
+    }
+
+    private CursorPage<TaskView> findPage(Criteria criteria, String cursor, Integer size, String fields) {
+        int limit = paginationProperties.resolvePageSize(size);
+        List<TaskView> tasks = taskRepository.findPage(
+                criteria, TaskView.resolveFields(fields), CursorPage.decodeCursor(cursor), limit);
+        return CursorPage.of(tasks, limit, TaskView::getId);
+    }
+
+    public Task assignTask(String taskId, String userId) {
         // Verify user exists
-        userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
 
-        task.setAssignedTo(userId);
-        task.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(task);
+        Update update = new Update()
+                .set("assignedTo", userId)
+                .set("updatedAt", LocalDateTime.now());
+        return modifyTask(taskId, update);
     }
 
     public Task markTaskAsCompleted(String taskId) {
-        Task task = getTaskById(taskId);
-        task.setStatus(Task.TaskStatus.COMPLETED);
-        task.setCompletedAt(LocalDateTime.now());
-        task.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(task);
+        return modifyTask(taskId, completionUpdate());
     }
 
-    public Task addComment(String taskId, String userId, String content) {
-        Task task = getTaskById(taskId);
+    private Update completionUpdate() {
+        LocalDateTime now = LocalDateTime.now();
+        return new Update()
+                .set("status", Task.TaskStatus.COMPLETED)
+                .set("completedAt", now)
+                .set("updatedAt", now);
+    }
 
+    public Task addComment(String taskId, String userId, String content) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Comment comment = new Comment();
-        comment.setId(UUID.randomUUID().toString());
+        comment.setTaskId(taskId);
         comment.setContent(content);
         comment.setUserId(userId);
         comment.setUsername(user.getUsername());
         comment.setCreatedAt(LocalDateTime.now());
+        comment = commentRepository.save(comment);
+
+        // $push with $slice keeps the embedded list bounded without reading it back
+        Update update = new Update()
+                .inc("commentCount", 1)
+                .set("updatedAt", LocalDateTime.now());
+        update.push("comments").slice(-recentCommentLimit).each(comment);
+
+        Task task = taskRepository.findAndModify(taskId, null, update);
+        if (task == null) {
+            commentRepository.deleteById(comment.getId());
+            throw new RuntimeException("Task not found");
+        }
+        return task;
+    }
 
-        task.getComments().add(comment);
-        task.setUpdatedAt(LocalDateTime.now());
+    public CursorPage<Comment> getComments(String taskId, String cursor, Integer size) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new RuntimeException("Task not found");
+        }
 
-        return taskRepository.save(task);
+        int limit = paginationProperties.resolvePageSize(size);
+        List<Comment> comments = commentRepository.findPage(
+                Criteria.where("taskId").is(taskId), CursorPage.decodeCursor(cursor), limit);
+        return CursorPage.of(comments, limit, Comment::getId);
     }
 
     public Task addAttachment(String taskId, Attachment attachment) {
-        Task task = getTaskById(taskId);
-
         attachment.setId(UUID.randomUUID().toString());
         attachment.setUploadedAt(LocalDateTime.now());
 
-        task.getAttachments().add(attachment);
-        task.setUpdatedAt(LocalDateTime.now());
+        Update update = new Update()
+                .push("attachments", attachment)
+                .set("updatedAt", LocalDateTime.now());
+        return modifyTask(taskId, update);
+    }
 
-        return taskRepository.save(task);
+    public Attachment getAttachment(String taskId, String attachmentId) {
+        Attachment attachment = taskRepository.findAttachment(taskId, attachmentId);
+        if (attachment == null) {
+            throw new RuntimeException("Attachment not found");
+        }
+        return attachment;
     }
-}
 
+    // Runs the whole batch as one bulkWrite. Targets and assignees are checked up front with one $in query each,
+    // so missing tasks and users are reported per item without a round trip per operation.
+    public BulkTaskResponse bulk(BulkTaskRequest request, String userId) {
+        List<BulkTaskOperation> operations = request.getOperations();
+        if (operations.size() > bulkMaxOperations) {
+            throw new RuntimeException("At most " + bulkMaxOperations + " operations are allowed per request");
+        }
+
+        Set<String> targetIds = new HashSet<>();
+        Set<String> assigneeIds = new HashSet<>();
+        for (BulkTaskOperation operation : operations) {
+            if (operation.getOp() != BulkTaskOperation.Type.CREATE && operation.getId() != null) {
+                targetIds.add(operation.getId());
+            }
+            if (operation.getOp() == BulkTaskOperation.Type.ASSIGN && operation.getUserId() != null) {
+                assigneeIds.add(operation.getUserId());
+            }
+        }
+
+        Map<String, Task> existing = new HashMap<>();
+        if (!targetIds.isEmpty()) {
+            taskRepository.findForBulk(targetIds).forEach(task -> existing.put(task.getId(), task));
+        }
+        Set<String> knownUsers = new HashSet<>();
+        if (!assigneeIds.isEmpty()) {
+            userRepository.findAllById(assigneeIds).forEach(user -> knownUsers.add(user.getId()));
+        }
+
+        BulkTaskResult[] results = new BulkTaskResult[operations.size()];
+        List<Integer> queued = new ArrayList<>();
+        // Previous and new image of every queued item, null standing for a created or deleted task
+        Map<Integer, Task[]> changes = new HashMap<>();
+        BulkOperations bulkOperations = taskRepository.bulkOps(request.isOrdered());
+
+        for (int i = 0; i < operations.size(); i++) {
+            BulkTaskOperation operation = operations.get(i);
+            BulkTaskResult result = new BulkTaskResult(i, operation.getOp(), operation.getId(), null, null);
+            results[i] = result;
+
+            String error = queueOperation(i, operation, result, existing, knownUsers, userId, bulkOperations,
+                    changes);
+            if (error == null) {
+                queued.add(i);
+            } else {
+                result.setError(error);
+                if (request.isOrdered()) {
+                    skipRemaining(results, operations, i + 1);
+                    break;
+                }
+            }
+        }
+
+        if (!queued.isEmpty()) {
+            executeBulk(bulkOperations, queued, results, request.isOrdered(), changes);
+        }
+
+        List<Task> removed = new ArrayList<>();
+        changes.forEach((index, change) -> {
+            if (results[index].getStatus() != BulkTaskResult.Status.OK) {
+                return;
+            }
+            projectStatsService.recordChange(change[0], change[1]);
+            if (change[1] == null) {
+                removed.add(change[0]);
+                deadlineScheduler.untrack(change[0].getId());
+            } else {
+                deadlineScheduler.track(change[1]);
+            }
+        });
+        if (!removed.isEmpty()) {
+            commentRepository.deleteByTaskIdIn(removed.stream().map(Task::getId).toList());
+            removed.forEach(task -> task.getAttachments().forEach(attachmentStorageService::release));
+        }
+
+        int succeeded = (int) Arrays.stream(results)
+                .filter(result -> result.getStatus() == BulkTaskResult.Status.OK)
+                .count();
+        return new BulkTaskResponse(succeeded, results.length - succeeded, Arrays.asList(results));
+    }
+
+    // Adds one write to the batch, or returns why the item cannot run
+    private String queueOperation(int index, BulkTaskOperation operation, BulkTaskResult result,
+                                  Map<String, Task> existing, Set<String> knownUsers, String userId,
+                                  BulkOperations bulkOperations, Map<Integer, Task[]> changes) {
+        if (operation.getOp() == BulkTaskOperation.Type.CREATE) {
+            if (operation.getTask() == null || !StringUtils.hasText(operation.getTask().getTitle())) {
+                result.setStatus(BulkTaskResult.Status.INVALID);
+                return "Title is required";
+            }
+            Task task = toTask(operation.getTask());
+            // Ids are generated here so the result can report them without reading the batch back
+            task.setId(new ObjectId().toHexString());
+            prepareNewTask(task, userId);
+            task.setVersion(0L);
+            bulkOperations.insert(task);
+            changes.put(index, new Task[]{null, task});
+            result.setId(task.getId());
+            return null;
+        }
+
+        if (operation.getId() == null || !existing.containsKey(operation.getId())) {
+            result.setStatus(BulkTaskResult.Status.NOT_FOUND);
+            return "Task not found";
+        }
+
+        // Writes only match the version read above (or produced earlier in this batch), so a task changed or
+        // deleted concurrently is left alone
+        Task before = existing.get(operation.getId());
+        Query byId = Query.query(Criteria.where("_id").is(operation.getId()).and("version").is(before.getVersion()));
+        Update update;
+        switch (operation.getOp()) {
+            case UPDATE -> {
+                if (operation.getTask() == null) {
+                    result.setStatus(BulkTaskResult.Status.INVALID);
+                    return "Task fields are required";
+                }
+                update = buildUpdate(toTask(operation.getTask()));
+            }
+            case ASSIGN -> {
+                if (!knownUsers.contains(operation.getUserId())) {
+                    result.setStatus(BulkTaskResult.Status.NOT_FOUND);
+                    return "User not found";
+                }
+                update = new Update()
+                        .set("assignedTo", operation.getUserId())
+                        .set("updatedAt", LocalDateTime.now());
+            }
+            case COMPLETE -> update = completionUpdate();
+            case DELETE -> {
+                // Later items in the same batch see the task as gone
+                existing.remove(operation.getId());
+                changes.put(index, new Task[]{before, null});
+                bulkOperations.remove(byId);
+                return null;
+            }
+            default -> throw new IllegalStateException("Unexpected operation " + operation.getOp());
+        }
+
+        update.inc("version", 1);
+        bulkOperations.updateOne(byId, update);
+        Task after = taskRepository.applySet(before, update);
+        existing.put(operation.getId(), after);
+        changes.put(index, new Task[]{before, after});
+        return null;
+    }
+
+    private void executeBulk(BulkOperations bulkOperations, List<Integer> queued, BulkTaskResult[] results,
+                             boolean ordered, Map<Integer, Task[]> changes) {
+        Map<Integer, String> errors = new HashMap<>();
+        BulkWriteResult writeResult;
+        try {
+            writeResult = bulkOperations.execute();
+        } catch (BulkOperationException e) {
+            writeResult = e.getResult();
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+        }
+
+        // Ordered batches stop at the first write error, so everything queued after it never ran
+        int firstError = errors.keySet().stream().min(Integer::compare).orElse(Integer.MAX_VALUE);
+        for (int position = 0; position < queued.size(); position++) {
+            BulkTaskResult result = results[queued.get(position)];
+            if (errors.containsKey(position)) {
+                result.setStatus(BulkTaskResult.Status.FAILED);
+                result.setError(errors.get(position));
+            } else if (ordered && position > firstError) {
+                result.setStatus(BulkTaskResult.Status.SKIPPED);
+            } else {
+                result.setStatus(BulkTaskResult.Status.OK);
+            }
+        }
+
+        verifyWrites(writeResult, queued, results, changes);
+    }
+
+    // A version-filtered write that lost a race matches nothing and reports no error. When the matched or deleted
+    // count falls short, the targets are read back with one $in query and every item whose write is not visible
+    // there is marked failed, so its stats delta and attachment release are skipped.
+    private void verifyWrites(BulkWriteResult writeResult, List<Integer> queued, BulkTaskResult[] results,
+                              Map<Integer, Task[]> changes) {
+        List<Integer> written = queued.stream()
+                .filter(index -> results[index].getStatus() == BulkTaskResult.Status.OK)
+                .filter(index -> changes.get(index)[0] != null)
+                .toList();
+        long removes = written.stream().filter(index -> changes.get(index)[1] == null).count();
+        long missedUpdates = written.size() - removes - writeResult.getMatchedCount();
+        long missedRemoves = removes - writeResult.getDeletedCount();
+        if (missedUpdates <= 0 && missedRemoves <= 0) {
+            return;
+        }
+
+        Map<String, Task> current = new HashMap<>();
+        Set<String> taskIds = new HashSet<>();
+        written.forEach(index -> taskIds.add(changes.get(index)[0].getId()));
+        taskRepository.findForBulk(taskIds).forEach(task -> current.put(task.getId(), task));
+
+        // A delete whose task is still there certainly lost; when those do not account for every missed delete,
+        // a concurrent delete got some of the others first and there is no telling which, so none is trusted
+        long removesStillThere = written.stream()
+                .filter(index -> changes.get(index)[1] == null)
+                .filter(index -> current.containsKey(changes.get(index)[0].getId()))
+                .count();
+        boolean removesAccounted = removesStillThere >= missedRemoves;
+
+        // Walked backwards: once a later write on a task is visible, the earlier ones it was chained on applied too
+        Set<String> visible = new HashSet<>();
+        for (int i = written.size() - 1; i >= 0; i--) {
+            int index = written.get(i);
+            Task[] change = changes.get(index);
+            String taskId = change[0].getId();
+            Task now = current.get(taskId);
+            boolean applied = visible.contains(taskId) || (change[1] == null
+                    ? now == null && removesAccounted
+                    : missedUpdates <= 0 || now != null && Objects.equals(now.getVersion(), change[1].getVersion())
+                            && Objects.equals(now.getUpdatedAt(), change[1].getUpdatedAt()));
+            if (applied) {
+                visible.add(taskId);
+            } else {
+                results[index].setStatus(BulkTaskResult.Status.FAILED);
+                results[index].setError("Task was changed or deleted concurrently");
+            }
+        }
+    }
+
+    private void skipRemaining(BulkTaskResult[] results, List<BulkTaskOperation> operations, int from) {
+        for (int i = from; i < operations.size(); i++) {
+            BulkTaskOperation operation = operations.get(i);
+            results[i] = new BulkTaskResult(i, operation.getOp(), operation.getId(),
+                    BulkTaskResult.Status.SKIPPED, null);
+        }
+    }
+
+    private Task toTask(TaskRequest request) {
+        Task task = new Task();
+        task.setTitle(request.getTitle());
+        task.setDescription(request.getDescription());
+        task.setDueDate(request.getDueDate());
+        task.setStatus(request.getStatus());
+        task.setPriority(request.getPriority());
+        task.setAssignedTo(request.getAssignedTo());
+        task.setProjectId(request.getProjectId());
+        return task;
+    }
+
+    private Task modifyTask(String taskId, Update update) {
+        return modifyTask(taskId, null, update);
+    }
+
+    private Task modifyTask(String taskId, Long expectedVersion, Update update) {
+        if (!projectStatsService.affects(update)) {
+            Task task = taskRepository.findAndModify(taskId, expectedVersion, update);
+            if (task == null) {
+                throw missingOrChanged(taskId, expectedVersion);
+            }
+            deadlineScheduler.track(task);
+            return task;
+        }
+
+        // The previous image is needed to move the task's contribution between counters
+        Task before = taskRepository.findAndModifyReturningOld(taskId, expectedVersion, update);
+        if (before == null) {
+            throw missingOrChanged(taskId, expectedVersion);
+        }
+        Task after = taskRepository.applySet(before, update);
+        projectStatsService.recordChange(before, after);
+        deadlineScheduler.track(after);
+        return after;
+    }
+
+    private RuntimeException missingOrChanged(String taskId, Long expectedVersion) {
+        if (expectedVersion != null && taskRepository.existsById(taskId)) {
+            return new PreconditionFailedException("Task was modified by another request");
+        }
+        return new RuntimeException("Task not found");
+    }
+}
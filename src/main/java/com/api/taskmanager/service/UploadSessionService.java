@@ -0,0 +1,267 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.dto.UploadSessionRequest;
+import com.api.taskmanager.dto.UploadStatusResponse;
+import com.api.taskmanager.model.Attachment;
+import com.api.taskmanager.model.Task;
+import com.api.taskmanager.model.UploadSession;
+import com.api.taskmanager.repository.TaskRepository;
+import com.api.taskmanager.repository.UploadSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Resumable uploads: the file is split into fixed-size parts that are written straight into a preallocated
+// file at their offsets, in any order and in parallel, and turned into an attachment once every part arrived
+@Service
+public class UploadSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadSessionService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private AttachmentStorageService attachmentStorageService;
+
+    @Value("${attachments.upload-dir:uploads/}")
+    private String uploadDir;
+
+    @Value("${attachments.max-size-bytes:5368709120}")
+    private long maxSizeBytes;
+
+    @Value("${attachments.uploads.part-size-bytes:8388608}")
+    private long partSize;
+
+    @Value("${attachments.uploads.session-ttl-ms:86400000}")
+    private long sessionTtlMs;
+
+    public UploadStatusResponse initiate(String taskId, UploadSessionRequest request, String userId)
+            throws IOException {
+        if (!taskRepository.existsById(taskId)) {
+            throw new RuntimeException("Task not found");
+        }
+        if (request.getSize() > maxSizeBytes) {
+            throw new RuntimeException("File exceeds the maximum size of " + maxSizeBytes + " bytes");
+        }
+
+        UploadSession session = new UploadSession();
+        session.setTaskId(taskId);
+        session.setUserId(userId);
+        session.setFileName(request.getFileName());
+        session.setFileType(request.getFileType() != null
+                ? request.getFileType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        session.setSize(request.getSize());
+        session.setPartSize(partSize);
+        session.setPartCount((int) ((request.getSize() + partSize - 1) / partSize));
+        session.setChecksum(request.getChecksum());
+        session.setStatus(UploadSession.UploadStatus.UPLOADING);
+        session.setCreatedAt(LocalDateTime.now());
+        session.setExpiresAt(nextExpiry());
+        session = uploadSessionRepository.save(session);
+
+        Path file = partFile(session.getId());
+        Files.createDirectories(file.getParent());
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(session.getSize());
+        } catch (IOException e) {
+            uploadSessionRepository.deleteById(session.getId());
+            throw e;
+        }
+        return toStatus(session);
+    }
+
+    public UploadStatusResponse getStatus(String taskId, String uploadId, String userId) {
+        return toStatus(getSession(taskId, uploadId, userId));
+    }
+
+    // A part may be sent again after a failure; it simply overwrites the same region
+    public UploadStatusResponse uploadPart(String taskId, String uploadId, int partNumber, InputStream content,
+                                           String userId) throws IOException {
+        UploadSession session = getSession(taskId, uploadId, userId);
+        if (partNumber < 0 || partNumber >= session.getPartCount()) {
+            throw new RuntimeException("Part number must be between 0 and " + (session.getPartCount() - 1));
+        }
+        if (uploadSessionRepository.beginPartWrite(uploadId) == null) {
+            throw new RuntimeException("Upload is being completed");
+        }
+
+        long offset = partNumber * session.getPartSize();
+        long expectedLength = Math.min(session.getPartSize(), session.getSize() - offset);
+        try {
+            long written = writeAt(partFile(uploadId), offset, expectedLength, content);
+            if (written != expectedLength) {
+                throw new IOException("Part " + partNumber + " must be " + expectedLength
+                        + " bytes, received " + written);
+            }
+        } catch (IOException | RuntimeException e) {
+            uploadSessionRepository.abortPartWrite(uploadId);
+            throw e;
+        }
+
+        UploadSession updated = uploadSessionRepository.markPartReceived(uploadId, partNumber, nextExpiry());
+        if (updated == null) {
+            throw new RuntimeException("Upload session not found");
+        }
+        return toStatus(updated);
+    }
+
+    public Task complete(String taskId, String uploadId, String userId) throws IOException {
+        UploadSession session = getSession(taskId, uploadId, userId);
+        if (session.getReceivedParts().size() < session.getPartCount()) {
+            throw new RuntimeException("Upload is missing " + (session.getPartCount()
+                    - session.getReceivedParts().size()) + " parts");
+        }
+        if (uploadSessionRepository.startCompleting(uploadId, session.getPartCount()) == null) {
+            throw new RuntimeException("Upload is already being completed or a part is still being written");
+        }
+
+        // The assembled file is handed to the store, which renames it into place rather than copying it
+        Attachment attachment;
+        try {
+            attachment = attachmentStorageService.adopt(partFile(uploadId), session.getFileName(),
+                    session.getFileType());
+        } catch (IOException | RuntimeException e) {
+            uploadSessionRepository.changeStatus(uploadId, UploadSession.UploadStatus.COMPLETING,
+                    UploadSession.UploadStatus.UPLOADING);
+            throw e;
+        }
+
+        // The store hashes the assembled file while adopting it, so verification needs no extra pass
+        if (session.getChecksum() != null && !session.getChecksum().equalsIgnoreCase(attachment.getChecksum())) {
+            attachmentStorageService.release(attachment);
+            discard(session);
+            throw new RuntimeException("Checksum mismatch, the upload has to be restarted");
+        }
+
+        attachment.setUploadedBy(userId);
+        Task task;
+        try {
+            task = taskService.addAttachment(taskId, attachment);
+        } catch (RuntimeException e) {
+            attachmentStorageService.release(attachment);
+            discard(session);
+            throw e;
+        }
+        discard(session);
+        return task;
+    }
+
+    public void abort(String taskId, String uploadId, String userId) {
+        discard(getSession(taskId, uploadId, userId));
+    }
+
+    @Scheduled(fixedDelayString = "${attachments.uploads.cleanup-interval-ms:600000}")
+    public void expireSessions() {
+        int expired = 0;
+        try (Stream<UploadSession> sessions = uploadSessionRepository.streamByExpiresAtBefore(LocalDateTime.now())) {
+            for (UploadSession session : (Iterable<UploadSession>) sessions::iterator) {
+                discard(session);
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            logger.info("Expired {} abandoned upload sessions", expired);
+        }
+    }
+
+    // Sessions of other users are reported as missing rather than forbidden
+    private UploadSession getSession(String taskId, String uploadId, String userId) {
+        return uploadSessionRepository.findById(uploadId)
+                .filter(session -> session.getTaskId().equals(taskId) && session.getUserId().equals(userId))
+                .orElseThrow(() -> new RuntimeException("Upload session not found"));
+    }
+
+    private long writeAt(Path file, long offset, long maxLength, InputStream content) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long written = 0;
+
+        try (ReadableByteChannel source = Channels.newChannel(content);
+             FileChannel destination = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                if (written + buffer.remaining() > maxLength) {
+                    throw new IOException("Part is larger than " + maxLength + " bytes");
+                }
+                while (buffer.hasRemaining()) {
+                    written += destination.write(buffer, offset + written);
+                }
+                buffer.clear();
+            }
+            destination.force(false);
+        }
+        return written;
+    }
+
+    private void discard(UploadSession session) {
+        try {
+            Files.deleteIfExists(partFile(session.getId()));
+        } catch (IOException e) {
+            logger.warn("Could not delete upload file of session {}: {}", session.getId(), e.getMessage());
+        }
+        uploadSessionRepository.deleteById(session.getId());
+    }
+
+    private Path partFile(String uploadId) {
+        return Paths.get(uploadDir, "sessions", uploadId + ".part");
+    }
+
+    private LocalDateTime nextExpiry() {
+        return LocalDateTime.now().plus(Duration.ofMillis(sessionTtlMs));
+    }
+
+    private UploadStatusResponse toStatus(UploadSession session) {
+        List<long[]> ranges = new ArrayList<>();
+        List<Integer> missing = new ArrayList<>();
+        long receivedBytes = 0;
+
+        for (int part = 0; part < session.getPartCount(); part++) {
+            if (!session.getReceivedParts().contains(part)) {
+                missing.add(part);
+                continue;
+            }
+            long start = part * session.getPartSize();
+            long end = Math.min(start + session.getPartSize(), session.getSize()) - 1;
+            receivedBytes += end - start + 1;
+
+            long[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+            if (last != null && last[1] + 1 == start) {
+                last[1] = end;
+            } else {
+                ranges.add(new long[]{start, end});
+            }
+        }
+
+        return new UploadStatusResponse(session.getId(), session.getSize(), session.getPartSize(),
+                session.getPartCount(), receivedBytes, ranges, missing, session.getExpiresAt());
+    }
+}
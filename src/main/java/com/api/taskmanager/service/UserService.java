@@ -2,6 +2,9 @@ package com.api.taskmanager.service;
 
 import com.api.taskmanager.model.User;
 import com.api.taskmanager.repository.UserRepository;
+import com.api.taskmanager.security.PasswordHashingExecutor;
+import com.api.taskmanager.security.PrincipalCache;
+import com.api.taskmanager.security.UserVersionTable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -19,8 +22,18 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private UserVersionTable userVersionTable;
+
     public User registerUser(User user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        String rawPassword = user.getPassword();
+        user.setPassword(passwordHashingExecutor.execute(() -> passwordEncoder.encode(rawPassword)));
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
 
@@ -30,7 +43,9 @@ public class UserService {
             user.getRoles().add("ROLE_USER");
         }
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userVersionTable.record(savedUser);
+        return savedUser;
     }
 
     public Optional<User> findByUsername(String username) {
@@ -64,13 +79,18 @@ public class UserService {
                 throw new RuntimeException("Email is already in use");
             }
             user.setEmail(updatedUser.getEmail());
+            // The email is carried in the token claims
+            user.setAuthVersion(user.getAuthVersion() + 1);
         }
         if (updatedUser.getPhone() != null) {
             user.setPhone(updatedUser.getPhone());
         }
 
         user.setUpdatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        principalCache.evictUser(userId);
+        userVersionTable.record(savedUser);
+        return savedUser;
     }
 }
 
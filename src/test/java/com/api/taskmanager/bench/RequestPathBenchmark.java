@@ -0,0 +1,178 @@
+package com.api.taskmanager.bench;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load test against a running instance. Start the application once with
+ * {@code spring.threads.virtual.enabled=false} and once with {@code true}, and run this class against each:
+ *
+ * <pre>
+ * mvn test -Dtest=RequestPathBenchmark -Dbench.url=http://localhost:8081 -Dbench.label=platform
+ * mvn test -Dtest=RequestPathBenchmark -Dbench.url=http://localhost:8081 -Dbench.label=virtual
+ * </pre>
+ *
+ * Results are printed and appended to {@code target/bench-results.csv}. Requests, throughput and latency cover
+ * successful (200) responses only; failed responses and I/O errors are counted in the errors column.
+ */
+@EnabledIfSystemProperty(named = "bench.url", matches = ".+")
+class RequestPathBenchmark {
+
+	private static final String HEADER = "mode,clients,requests,errors,throughput_rps,p50_ms,p99_ms";
+
+	private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+	private final String baseUrl = System.getProperty("bench.url");
+	private final String label = System.getProperty("bench.label", "unlabelled");
+	private final String path = System.getProperty("bench.path", "/api/tasks?size=20");
+	private final String concurrencyLevels = System.getProperty("bench.concurrency", "1000,2000,5000,10000");
+	private final Duration warmup = Duration.ofSeconds(Long.getLong("bench.warmup-seconds", 10));
+	private final Duration measurement = Duration.ofSeconds(Long.getLong("bench.duration-seconds", 30));
+
+	private final HttpClient client = HttpClient.newBuilder()
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.connectTimeout(Duration.ofSeconds(10))
+			.build();
+
+	@Test
+	void compareThroughputAndTailLatency() throws Exception {
+		// Only registers a user when no token was passed in
+		String token = System.getProperty("bench.token");
+		if (token == null) {
+			token = obtainToken();
+		}
+
+		System.out.println(HEADER);
+		List<String> rows = new ArrayList<>();
+		for (String level : concurrencyLevels.split(",")) {
+			int clients = Integer.parseInt(level.trim());
+			run(token, clients, warmup);
+			Result result = run(token, clients, measurement);
+			String row = String.format("%s,%d,%d,%d,%.1f,%d,%d",
+					label, clients, result.requests(), result.errors(),
+					result.requests() / (double) measurement.toSeconds(), result.p50Millis(), result.p99Millis());
+			System.out.println(row);
+			rows.add(row);
+		}
+
+		Path output = Path.of("target", "bench-results.csv");
+		Files.createDirectories(output.getParent());
+		if (!Files.exists(output)) {
+			Files.writeString(output, HEADER + "\n");
+		}
+		Files.write(output, rows, StandardOpenOption.APPEND);
+	}
+
+	private Result run(String token, int clients, Duration duration) throws InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.header("Authorization", "Bearer " + token)
+				.timeout(Duration.ofSeconds(60))
+				.GET()
+				.build();
+
+		LatencyHistogram histogram = new LatencyHistogram();
+		AtomicLong errors = new AtomicLong();
+		long deadline = System.nanoTime() + duration.toNanos();
+
+		try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < clients; i++) {
+				workers.submit(() -> {
+					while (System.nanoTime() < deadline) {
+						long start = System.nanoTime();
+						try {
+							HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() == 200) {
+								histogram.record(System.nanoTime() - start);
+							} else {
+								errors.incrementAndGet();
+							}
+						} catch (IOException e) {
+							errors.incrementAndGet();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+							return;
+						}
+					}
+				});
+			}
+		}
+
+		return new Result(histogram.count(), errors.get(), histogram.percentile(0.50), histogram.percentile(0.99));
+	}
+
+	private String obtainToken() throws IOException, InterruptedException {
+		String username = "bench" + UUID.randomUUID().toString().substring(0, 8);
+		String password = "Bench@123";
+		post("/api/auth/register", "{\"username\":\"" + username + "\",\"email\":\"" + username
+				+ "@example.com\",\"password\":\"" + password + "\"}");
+		String login = post("/api/auth/login", "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}");
+
+		Matcher matcher = TOKEN.matcher(login);
+		if (!matcher.find()) {
+			throw new IllegalStateException("Login failed: " + login);
+		}
+		return matcher.group(1);
+	}
+
+	private String post(String endpoint, String json) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(json))
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+	}
+
+	private record Result(long requests, long errors, long p50Millis, long p99Millis) {
+	}
+
+	// Millisecond buckets up to one minute; slower responses land in the last bucket
+	private static final class LatencyHistogram {
+
+		private final AtomicLongArray buckets = new AtomicLongArray(60_001);
+
+		void record(long nanos) {
+			int millis = (int) Math.min(nanos / 1_000_000, buckets.length() - 1);
+			buckets.incrementAndGet(millis);
+		}
+
+		long count() {
+			long total = 0;
+			for (int i = 0; i < buckets.length(); i++) {
+				total += buckets.get(i);
+			}
+			return total;
+		}
+
+		long percentile(double quantile) {
+			long target = (long) Math.ceil(count() * quantile);
+			long seen = 0;
+			for (int i = 0; i < buckets.length(); i++) {
+				seen += buckets.get(i);
+				if (seen >= target && target > 0) {
+					return i;
+				}
+			}
+			return 0;
+		}
+	}
+
+}
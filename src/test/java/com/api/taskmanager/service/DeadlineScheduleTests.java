@@ -0,0 +1,116 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.dto.TaskView;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Plain unit tests of the in-memory schedule; no Spring context or MongoDB needed
+class DeadlineScheduleTests {
+
+	private static final long DUE_SOON_MS = 60 * 60 * 1000;
+
+	private final LocalDateTime start = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+	@Test
+	void addPlacesTasksWithoutEvents() {
+		DeadlineScheduler.Schedule schedule = new DeadlineScheduler.Schedule(DUE_SOON_MS, start);
+		schedule.add(task("future", "p1", start.plusHours(5)));
+		schedule.add(task("soon", "p1", start.plusMinutes(30)));
+		schedule.add(task("late", "p1", start.minusMinutes(1)));
+
+		assertEquals(List.of("late"), ids(schedule.overdue("p1", 10)));
+
+		List<TaskDeadlineEvent> events = new ArrayList<>();
+		schedule.advance(start, events);
+		assertTrue(events.isEmpty());
+	}
+
+	@Test
+	void advanceFiresDueSoonThenOverdue() {
+		DeadlineScheduler.Schedule schedule = new DeadlineScheduler.Schedule(DUE_SOON_MS, start);
+		schedule.add(task("t1", "p1", start.plusHours(2)));
+
+		List<TaskDeadlineEvent> events = new ArrayList<>();
+		schedule.advance(start.plusMinutes(59), events);
+		assertTrue(events.isEmpty());
+
+		schedule.advance(start.plusHours(1), events);
+		assertEquals(List.of(TaskDeadlineEvent.Type.DUE_SOON), types(events));
+		assertTrue(schedule.overdue(null, 10).isEmpty());
+
+		events.clear();
+		schedule.advance(start.plusHours(2), events);
+		assertEquals(List.of(TaskDeadlineEvent.Type.OVERDUE), types(events));
+		assertEquals(List.of("t1"), ids(schedule.overdue("p1", 10)));
+
+		events.clear();
+		schedule.advance(start.plusHours(3), events);
+		assertTrue(events.isEmpty());
+	}
+
+	@Test
+	void deadlinesPassedBeforeTheScheduleWasLoadedStillFire() {
+		// As on startup: the schedule is placed as of a time in the past and the first tick catches up
+		DeadlineScheduler.Schedule schedule = new DeadlineScheduler.Schedule(DUE_SOON_MS, start.minusHours(3));
+		schedule.add(task("t1", "p1", start.minusHours(1)));
+
+		List<TaskDeadlineEvent> events = new ArrayList<>();
+		schedule.advance(start, events);
+		assertEquals(List.of(TaskDeadlineEvent.Type.DUE_SOON, TaskDeadlineEvent.Type.OVERDUE), types(events));
+		assertEquals(List.of("t1"), ids(schedule.overdue("p1", 10)));
+	}
+
+	@Test
+	void overdueIsOrderedAndKeptPerProject() {
+		DeadlineScheduler.Schedule schedule = new DeadlineScheduler.Schedule(DUE_SOON_MS, start);
+		schedule.add(task("b", "p1", start.minusHours(1)));
+		schedule.add(task("a", "p1", start.minusHours(2)));
+		schedule.add(task("c", "p2", start.minusHours(3)));
+
+		assertEquals(List.of("a", "b"), ids(schedule.overdue("p1", 10)));
+		assertEquals(List.of("c"), ids(schedule.overdue("p2", 10)));
+		assertEquals(List.of("c", "a"), ids(schedule.overdue(null, 2)));
+		assertTrue(schedule.overdue("p3", 10).isEmpty());
+	}
+
+	@Test
+	void removeDropsTaskFromEveryStage() {
+		DeadlineScheduler.Schedule schedule = new DeadlineScheduler.Schedule(DUE_SOON_MS, start);
+		schedule.add(task("soon", "p1", start.plusHours(2)));
+		schedule.add(task("due", "p1", start.plusMinutes(30)));
+		schedule.add(task("late", "p1", start.minusMinutes(1)));
+
+		schedule.remove("soon");
+		schedule.remove("due");
+		schedule.remove("late");
+		schedule.remove("unknown");
+
+		List<TaskDeadlineEvent> events = new ArrayList<>();
+		schedule.advance(start.plusHours(3), events);
+		assertTrue(events.isEmpty());
+		assertTrue(schedule.overdue("p1", 10).isEmpty());
+		assertTrue(schedule.overdue(null, 10).isEmpty());
+	}
+
+	private TaskView task(String id, String projectId, LocalDateTime dueDate) {
+		TaskView task = new TaskView();
+		task.setId(id);
+		task.setProjectId(projectId);
+		task.setDueDate(dueDate);
+		return task;
+	}
+
+	private List<String> ids(List<TaskView> tasks) {
+		return tasks.stream().map(TaskView::getId).toList();
+	}
+
+	private List<TaskDeadlineEvent.Type> types(List<TaskDeadlineEvent> events) {
+		return events.stream().map(TaskDeadlineEvent::type).toList();
+	}
+}
@@ -0,0 +1,63 @@
+package com.api.taskmanager.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Plain unit tests of the snapshot's sorted int[] per user; no Spring context or MongoDB needed
+class ProjectMembershipIndexTests {
+
+	@Test
+	void addKeepsProjectsSortedAndUnique() {
+		ProjectMembershipIndex.Snapshot snapshot = new ProjectMembershipIndex.Snapshot();
+		snapshot.add("p1", List.of("u1"));
+		snapshot.add("p2", List.of("u2"));
+		snapshot.add("p3", List.of("u1", "u2"));
+		// p2 was numbered before p3, so it lands in the middle of u1's array
+		snapshot.add("p2", List.of("u1"));
+		snapshot.add("p1", List.of("u1"));
+
+		assertEquals(List.of("p1", "p2", "p3"), snapshot.projectIds("u1"));
+		assertEquals(List.of("p2", "p3"), snapshot.projectIds("u2"));
+		assertEquals(List.of(), snapshot.projectIds("unknown"));
+	}
+
+	@Test
+	void removeDropsOnlyThatProject() {
+		ProjectMembershipIndex.Snapshot snapshot = new ProjectMembershipIndex.Snapshot();
+		snapshot.add("p1", List.of("u1"));
+		snapshot.add("p2", List.of("u1"));
+		snapshot.add("p3", List.of("u1"));
+
+		snapshot.remove("p2", List.of("u1"));
+		assertEquals(List.of("p1", "p3"), snapshot.projectIds("u1"));
+
+		snapshot.remove("p2", List.of("u1"));
+		snapshot.remove("unknown", List.of("u1"));
+		snapshot.remove("p1", List.of("u2"));
+		assertEquals(List.of("p1", "p3"), snapshot.projectIds("u1"));
+
+		snapshot.remove("p1", List.of("u1"));
+		snapshot.remove("p3", List.of("u1"));
+		assertEquals(List.of(), snapshot.projectIds("u1"));
+
+		snapshot.add("p2", List.of("u1"));
+		assertEquals(List.of("p2"), snapshot.projectIds("u1"));
+	}
+
+	@Test
+	void olderMemberChangesAreIgnored() {
+		ProjectMembershipIndex.Snapshot snapshot = new ProjectMembershipIndex.Snapshot();
+		snapshot.load("p1", List.of("u1"), 4L);
+
+		assertFalse(snapshot.isNewer("p1", "u1", 4));
+		assertTrue(snapshot.isNewer("p1", "u1", 6));
+		assertFalse(snapshot.isNewer("p1", "u1", 5));
+		// Versions are tracked per member, so another user's change at a lower version still applies
+		assertTrue(snapshot.isNewer("p1", "u2", 5));
+	}
+}
@@ -0,0 +1,136 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.dto.TaskChangeEvent;
+import com.api.taskmanager.model.Task;
+import com.api.taskmanager.model.User;
+import com.api.taskmanager.repository.UserRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Change streams need a replica set. Run against a local single-node one with
+//   mongod --replSet rs0 && mongosh --eval "rs.initiate()"
+//   mvn test -Dtests.mongo.replica-set=true -Dspring.data.mongodb.uri=mongodb://localhost:27017/taskmanager?replicaSet=rs0
+@SpringBootTest(properties = "tasks.events.subscriber-buffer=4")
+@EnabledIfSystemProperty(named = "tests.mongo.replica-set", matches = "true")
+class TaskChangeFeedTests {
+
+	private static final long TIMEOUT_SECONDS = 10;
+
+	@Autowired
+	private TaskChangeFeed taskChangeFeed;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private final List<String> createdTasks = new ArrayList<>();
+
+	@BeforeEach
+	void waitForFeed() throws Exception {
+		// The consumer opens its change stream in the background; wait until a write comes through
+		String projectId = new ObjectId().toHexString();
+		try (TaskChangeSubscription subscription = taskChangeFeed.subscribe(projectId, null, () -> { }).start()) {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+			TaskChangeEvent event = null;
+			while (event == null && System.nanoTime() < deadline) {
+				createTask(projectId);
+				event = subscription.poll(500, TimeUnit.MILLISECONDS);
+			}
+			assertNotNull(event, "change stream did not start");
+		} finally {
+			createdTasks.forEach(taskService::deleteTask);
+			createdTasks.clear();
+		}
+	}
+
+	@Test
+	void fansOutTaskChangesAndReplaysAfterReconnect() throws Exception {
+		User user = new User();
+		user.setUsername("feed-" + UUID.randomUUID());
+		user.setEmail(user.getUsername() + "@example.com");
+		user.setPassword("unused");
+		user = userRepository.save(user);
+
+		String projectId = new ObjectId().toHexString();
+		String otherProjectId = new ObjectId().toHexString();
+		try (TaskChangeSubscription subscription = taskChangeFeed.subscribe(projectId, null, () -> { }).start()) {
+			Task task = createTask(projectId);
+			createTask(otherProjectId);
+			TaskChangeEvent created = next(subscription);
+			assertEquals(TaskChangeEvent.Type.CREATED, created.getType());
+			assertEquals(task.getId(), created.getTaskId());
+
+			taskService.addComment(task.getId(), user.getId(), "hello");
+			TaskChangeEvent commented = next(subscription);
+			assertEquals(TaskChangeEvent.Type.COMMENT_ADDED, commented.getType());
+
+			Task update = new Task();
+			update.setTitle("Renamed");
+			taskService.updateTask(task.getId(), update);
+			TaskChangeEvent updated = next(subscription);
+			assertEquals(TaskChangeEvent.Type.UPDATED, updated.getType());
+			assertEquals("Renamed", updated.getTask().getTitle());
+
+			// A client that saw only the first event is replayed the two after it, and nothing from other projects
+			try (TaskChangeSubscription resumed = taskChangeFeed.subscribe(projectId, created.getId(), () -> { }).start()) {
+				assertEquals(commented.getId(), next(resumed).getId());
+				assertEquals(updated.getId(), next(resumed).getId());
+			}
+
+			try (TaskChangeSubscription unknown = taskChangeFeed.subscribe(projectId, "unknown", () -> { }).start()) {
+				assertEquals(TaskChangeEvent.Type.RESET, next(unknown).getType());
+			}
+		} finally {
+			createdTasks.forEach(taskService::deleteTask);
+			userRepository.deleteById(user.getId());
+		}
+	}
+
+	@Test
+	void slowSubscriberIsDropped() throws Exception {
+		String projectId = new ObjectId().toHexString();
+		try (TaskChangeSubscription fast = taskChangeFeed.subscribe(projectId, null, () -> { }).start();
+			 TaskChangeSubscription slow = taskChangeFeed.subscribe(projectId, null, () -> { }).start()) {
+			for (int i = 0; i < 6; i++) {
+				createTask(projectId);
+				assertNotNull(next(fast));
+			}
+
+			assertTrue(slow.isOverflowed());
+			assertNull(slow.poll());
+		} finally {
+			createdTasks.forEach(taskService::deleteTask);
+		}
+	}
+
+	private Task createTask(String projectId) {
+		Task task = new Task();
+		task.setTitle("Change feed");
+		task.setProjectId(projectId);
+		task = taskService.createTask(task, "feed-tests");
+		createdTasks.add(task.getId());
+		return task;
+	}
+
+	private TaskChangeEvent next(TaskChangeSubscription subscription) throws InterruptedException {
+		TaskChangeEvent event = subscription.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		assertNotNull(event, "no event within " + TIMEOUT_SECONDS + "s");
+		return event;
+	}
+}
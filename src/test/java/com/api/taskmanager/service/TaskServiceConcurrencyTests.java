@@ -0,0 +1,83 @@
+package com.api.taskmanager.service;
+
+import com.api.taskmanager.model.Task;
+import com.api.taskmanager.model.User;
+import com.api.taskmanager.repository.CommentRepository;
+import com.api.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class TaskServiceConcurrencyTests {
+
+	private static final int WRITERS = 64;
+	private static final int COMMENTS_PER_WRITER = 25;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private CommentRepository commentRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Value("${tasks.comments.recent-limit}")
+	private int recentCommentLimit;
+
+	@Test
+	void concurrentCommentsAreNeverLost() throws Exception {
+		User user = new User();
+		user.setUsername("concurrency-" + UUID.randomUUID());
+		user.setEmail(user.getUsername() + "@example.com");
+		user.setPassword("unused");
+		user = userRepository.save(user);
+
+		Task task = new Task();
+		task.setTitle("Concurrent comments");
+		task = taskService.createTask(task, user.getId());
+
+		String taskId = task.getId();
+		String userId = user.getId();
+		ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> writers = new ArrayList<>();
+			for (int i = 0; i < WRITERS; i++) {
+				writers.add(executor.submit(() -> {
+					start.await();
+					for (int j = 0; j < COMMENTS_PER_WRITER; j++) {
+						taskService.addComment(taskId, userId, "comment " + j);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> writer : writers) {
+				writer.get();
+			}
+
+			Task reloaded = taskService.getTaskById(taskId);
+			assertEquals(WRITERS * COMMENTS_PER_WRITER, reloaded.getCommentCount());
+			assertEquals(WRITERS * COMMENTS_PER_WRITER, commentRepository.countByTaskId(taskId));
+			assertEquals(recentCommentLimit, reloaded.getComments().size());
+		} finally {
+			executor.shutdownNow();
+			taskService.deleteTask(taskId);
+			userRepository.deleteById(userId);
+		}
+	}
+
+}